@@ -99,6 +99,15 @@ public class Animation extends Object2D implements Drawable {
         currentFrame = f;
     }
 
+    /**
+     * Get the index of the current frame.
+     *
+     * @return The index of the frame being displayed.
+     */
+    public int getCurrentFrame() {
+        return currentFrame;
+    }
+
     /**
      * Get the image associated with frame 'i'.
      *
@@ -1,15 +1,28 @@
 package com.saifkhichi.apis.gcore;
 
+import com.saifkhichi.apis.gcore.metrics.FrameStats;
+import com.saifkhichi.apis.gcore.render.RenderState;
 import com.saifkhichi.apis.gcore.render.Scene;
 import com.saifkhichi.apis.gcore.render.SceneCollection;
+import com.saifkhichi.apis.gcore.render.SnapshotRenderer;
+import com.saifkhichi.apis.gcore.render.StateSnapshot;
 
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Base class for all games.
  * <p>
  * This class saves game states and implements core functionality to properly
  * play of a game.
+ * <p>
+ * A game is updated by its loop on a single thread, without holding any lock.
+ * Other threads may call {@link #pause()}, {@link #resume()}, {@link #end()}
+ * and the query methods at any time, but must not modify the game directly.
+ * Instead they hand work to the loop thread with {@link #post(Runnable)},
+ * which runs it right before the next update.
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  * @version 2.0.0
@@ -33,23 +46,86 @@ public abstract class BaseGame implements GameCallbacks {
     private final GameLoop loop;
 
     /**
-     * Flag indicating whether the game is finished or not.
+     * Current lifecycle state of the game.
+     */
+    private final AtomicReference<GameState> state = new AtomicReference<>(GameState.STARTING);
+
+    /**
+     * Work posted by other threads, to be run on the loop thread.
+     */
+    private final Queue<Runnable> posted = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Input events submitted by other threads, to be delivered on the loop
+     * thread.
+     */
+    private final Queue<InputEvent> inputs = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Recorder of the current session, or null if it is not being recorded.
+     */
+    private volatile SessionRecorder recorder;
+
+    /**
+     * Scheduler that runs the game loop.
+     */
+    private volatile LoopScheduler scheduler = new DedicatedThreadScheduler();
+
+    /**
+     * Flag indicating whether the scenes of the game have been created.
+     */
+    private boolean isSetUp = false;
+
+    /**
+     * Number of updates run since the game started.
      */
-    private boolean isOver = false;
+    private volatile long tickCount = 0;
 
     /**
-     * Flag indicating if the game is currently paused.
+     * Strategy used by the game loop to advance the game.
      */
-    private boolean isPaused = false;
+    private volatile LoopMode loopMode = LoopMode.VARIABLE;
+
+    /**
+     * Maximum number of fixed updates run before a frame is drawn.
+     */
+    private volatile int maxCatchUpTicks = 5;
+
+    /**
+     * Maximum number of frames drawn per second in fixed-step mode.
+     */
+    private volatile int renderRate;
+
+    /**
+     * Flag indicating whether frames are drawn on a separate render thread.
+     */
+    private volatile boolean threadedRendering = false;
+
+    /**
+     * State handed from the update thread to the render thread.
+     */
+    private final RenderState renderState = new RenderState();
+
+    /**
+     * Timing statistics recorded by the game loop.
+     */
+    private final FrameStats frameStats = new FrameStats();
 
     /**
      * Creates a new game with the given refresh rate.
      *
      * @param fps The refresh rate (in frames per second) of the game
+     * @throws IllegalArgumentException if the refresh rate is not positive, or
+     *                                  too high for an update interval of at
+     *                                  least one nanosecond
      */
     protected BaseGame(int fps) {
+        if (fps <= 0 || fps > GameLoop.NANOS_PER_SECOND) {
+            throw new IllegalArgumentException("Invalid refresh rate: " + fps);
+        }
         this.loop = new GameLoop(this);
         this.fps = fps;
+        this.renderRate = fps;
     }
 
     protected abstract List<Scene> getScenes();
@@ -71,12 +147,203 @@ public abstract class BaseGame implements GameCallbacks {
      * Update interval is the time interval between two consecutive game
      * updates, or between two consecutive frames.
      *
-     * @return update interval of the game in milliseconds
+     * @return update interval of the game in milliseconds, rounded down
+     * @see #getUpdateIntervalNanos()
      */
     public long getUpdateInterval() {
         return 1000 / fps;
     }
 
+    /**
+     * Get the update interval of the game, without rounding it to whole
+     * milliseconds.
+     *
+     * @return update interval of the game in nanoseconds
+     */
+    long getUpdateIntervalNanos() {
+        return GameLoop.NANOS_PER_SECOND / fps;
+    }
+
+    /**
+     * Get the strategy used by the game loop to advance the game.
+     *
+     * @return the loop mode of the game
+     */
+    public LoopMode getLoopMode() {
+        return loopMode;
+    }
+
+    /**
+     * Set the strategy used by the game loop to advance the game.
+     * <p>
+     * The loop mode is read when the game loop starts, so this method should
+     * be called before {@link #start()}. Default is {@link LoopMode#VARIABLE}.
+     *
+     * @param loopMode the loop mode of the game
+     * @throws NullPointerException if the loop mode is null
+     */
+    public void setLoopMode(LoopMode loopMode) {
+        if (loopMode == null) {
+            throw new NullPointerException("Loop mode cannot be null");
+        }
+        this.loopMode = loopMode;
+    }
+
+    /**
+     * Get the scheduler that runs the game loop.
+     *
+     * @return the loop scheduler of the game
+     */
+    public LoopScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Set the scheduler that runs the game loop.
+     * <p>
+     * By default every game loop runs on a thread of its own. To host many
+     * games in one process, share a single {@link SharedLoopScheduler} between
+     * them instead. The scheduler is used when the game starts, so this method
+     * should be called before {@link #start()}.
+     *
+     * @param scheduler the loop scheduler of the game
+     * @throws NullPointerException if the scheduler is null
+     */
+    public void setScheduler(LoopScheduler scheduler) {
+        if (scheduler == null) {
+            throw new NullPointerException("Scheduler cannot be null");
+        }
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Get the maximum number of updates run to catch up before a frame is
+     * drawn in {@link LoopMode#FIXED} mode.
+     *
+     * @return maximum number of catch-up updates per frame
+     */
+    public int getMaxCatchUpTicks() {
+        return maxCatchUpTicks;
+    }
+
+    /**
+     * Set the maximum number of updates run to catch up before a frame is
+     * drawn in {@link LoopMode#FIXED} mode.
+     * <p>
+     * When the game falls further behind than this, the remaining backlog is
+     * dropped and the simulation runs slower than real time instead of
+     * spiralling. Default is 5.
+     *
+     * @param maxCatchUpTicks maximum number of catch-up updates per frame
+     * @throws IllegalArgumentException if the value is less than 1
+     */
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        if (maxCatchUpTicks < 1) {
+            throw new IllegalArgumentException("At least one update per frame is required");
+        }
+        this.maxCatchUpTicks = maxCatchUpTicks;
+    }
+
+    /**
+     * Get the maximum number of frames drawn per second in
+     * {@link LoopMode#FIXED} mode.
+     *
+     * @return the render rate of the game, or 0 if it is uncapped
+     */
+    public int getRenderRate() {
+        return renderRate;
+    }
+
+    /**
+     * Set the maximum number of frames drawn per second in
+     * {@link LoopMode#FIXED} mode.
+     * <p>
+     * The render rate is independent of the refresh rate of the game, which
+     * remains the rate of updates. A value of 0 draws frames as fast as the
+     * host allows. Default is the refresh rate of the game.
+     *
+     * @param renderRate the render rate (in frames per second) of the game
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void setRenderRate(int renderRate) {
+        if (renderRate < 0) {
+            throw new IllegalArgumentException("Render rate cannot be negative");
+        }
+        this.renderRate = renderRate;
+    }
+
+    /**
+     * Get the minimum time between two consecutive frames.
+     *
+     * @return render interval in nanoseconds, or 0 if it is uncapped
+     */
+    long getRenderInterval() {
+        int rate = renderRate;
+        return rate == 0 ? 0 : GameLoop.NANOS_PER_SECOND / rate;
+    }
+
+    /**
+     * Checks whether frames are drawn on a separate render thread.
+     *
+     * @return true if rendering is decoupled from updates, false otherwise
+     */
+    public boolean isThreadedRendering() {
+        return threadedRendering;
+    }
+
+    /**
+     * Enables or disables drawing frames on a separate render thread.
+     * <p>
+     * When enabled, the game loop only runs updates. After every update it
+     * publishes a snapshot of the objects tracked by {@link #getRenderState()},
+     * and a render thread draws the latest snapshot through
+     * {@link #onDraw(StateSnapshot, float)} at the render rate, concurrently
+     * with updates. Render code must then only read state from snapshots, so
+     * every scene of the game must implement {@link SnapshotRenderer};
+     * otherwise {@link #start()} refuses to start the game.
+     * <p>
+     * This setting is read when the game loop starts, so this method should be
+     * called before {@link #start()}. Default is false.
+     *
+     * @param threadedRendering true to draw on a separate thread
+     */
+    public void setThreadedRendering(boolean threadedRendering) {
+        this.threadedRendering = threadedRendering;
+    }
+
+    /**
+     * Get the state handed from the update thread to the render thread.
+     * <p>
+     * Objects that should be drawn by the render thread must be tracked by this
+     * render state.
+     *
+     * @return the render state of the game
+     */
+    public RenderState getRenderState() {
+        return renderState;
+    }
+
+    /**
+     * Get the timing statistics recorded by the game loop.
+     * <p>
+     * The game loop records the duration of every update and frame, how long
+     * it oversleeps, and how many frames miss the update interval. The
+     * returned object is live; use {@link FrameStats#drainTo(FrameStats)} to
+     * read and reset it once per reporting interval.
+     *
+     * @return the frame timing statistics of the game
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Removes all timing statistics recorded by the game loop so far.
+     */
+    public void resetFrameStats() {
+        frameStats.reset();
+    }
+
     public Scene getActiveScene() {
         return scenes.getCurrentScene();
     }
@@ -89,6 +356,39 @@ public abstract class BaseGame implements GameCallbacks {
         getCurrentScene().onDraw();
     }
 
+    /**
+     * Draws the current scene in {@link LoopMode#FIXED} mode.
+     * <p>
+     * Called by the game loop instead of {@link #onDraw()}. This is not part
+     * of {@link GameCallbacks}, so that existing implementations of the
+     * interface keep compiling; subclasses can override it to blend between
+     * updates.
+     *
+     * @param interpolation fraction of an update interval elapsed since the
+     *                      last update, in the range [0, 1)
+     */
+    public void onDraw(float interpolation) {
+        getCurrentScene().onDraw(interpolation);
+    }
+
+    /**
+     * Draws the current scene on the render thread.
+     * <p>
+     * Only called when threaded rendering is enabled. This method must not
+     * modify the game, and should only read state from the snapshot.
+     *
+     * @param snapshot      the latest snapshot published by the game loop
+     * @param interpolation fraction of an update interval elapsed since the
+     *                      snapshot was published, in the range [0, 1]
+     * @see #setThreadedRendering(boolean)
+     */
+    public void onDraw(StateSnapshot snapshot, float interpolation) {
+        Scene scene = getCurrentScene();
+        if (scene instanceof SnapshotRenderer) {
+            ((SnapshotRenderer) scene).onDraw(snapshot, interpolation);
+        }
+    }
+
     public void startScene(Class<? extends Scene> sceneName) {
         Scene scene = scenes.getScene(sceneName);
         if (scene == null) {
@@ -106,19 +406,162 @@ public abstract class BaseGame implements GameCallbacks {
     /**
      * Starts the game loop.
      * <p>
-     * The game loop runs in a separate thread. The onStart() method of the game
-     * is called right before starting the game loop. This is followed by a call
-     * to onStart() of the current scene. And finally, the game loop is started.
+     * The game loop runs on the scheduler of the game, by default in a separate
+     * thread. The onStart() method of the game is called right before starting
+     * the game loop. This is followed by a call to onStart() of the current
+     * scene. And finally, the game loop is started.
+     * <p>
+     * A game that has already been advanced with {@link #stepTicks(int, long)},
+     * e.g. to warm it up without a window, is not set up again: the game loop
+     * continues from the current state of the game, and the onStart()
+     * callbacks are not called a second time.
      *
-     * @throws RuntimeException if there is problem starting the game loop
+     * @throws RuntimeException      if there is problem starting the game loop
+     * @throws IllegalStateException if threaded rendering is enabled and a
+     *                               scene does not implement
+     *                               {@link SnapshotRenderer}
      */
     public void start() throws RuntimeException {
+        boolean threaded = threadedRendering && loopMode != LoopMode.HEADLESS;
+        if (!isSetUp) {
+            setUp(threaded);
+        } else if (threaded) {
+            // The scenes were created for stepping, which draws nothing
+            for (Class<? extends Scene> sceneName : scenes.listScenes()) {
+                requireSnapshotRenderer(scenes.getScene(sceneName));
+            }
+        }
+
+        // Start the game loop
+        loop.start(scheduler);
+    }
+
+    /**
+     * Advances the game by a number of updates, as fast as possible.
+     * <p>
+     * Each update is run on the calling thread with the same synthetic elapsed
+     * time, and no frames are drawn. This makes it possible to run a game
+     * without real-time pacing, e.g. for server-side simulation or tests. The
+     * game is set up (as in {@link #start()}, but without starting the game
+     * loop) on the first call. Stepping stops early if the game ends.
+     * <p>
+     * The game loop can be started with {@link #start()} after stepping, and
+     * then continues where stepping left off. Stepping is no longer possible
+     * once the game loop has been started.
+     *
+     * @param n       the number of updates to run
+     * @param deltaMs the time passed to every update, in milliseconds
+     * @return the number of updates actually run
+     * @throws IllegalArgumentException if n or deltaMs is negative
+     * @throws IllegalStateException    if the game loop has been started
+     * @see LoopMode#HEADLESS
+     */
+    public int stepTicks(int n, long deltaMs) {
+        if (n < 0 || deltaMs < 0) {
+            throw new IllegalArgumentException("Tick count and delta cannot be negative");
+        }
+        prepareForStepping();
+
+        int ticks = 0;
+        while (ticks < n && !isOver()) {
+            long start = System.nanoTime();
+            runTick(deltaMs);
+            frameStats.recordUpdate(System.nanoTime() - start);
+            ticks++;
+        }
+        return ticks;
+    }
+
+    /**
+     * Get the number of updates run since the game started.
+     *
+     * @return the number of ticks
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Makes sure the game can be advanced on the calling thread.
+     * <p>
+     * The game is set up if this has not happened yet.
+     *
+     * @throws IllegalStateException if the game loop has been started
+     */
+    void prepareForStepping() {
+        if (loop.isStarted()) {
+            throw new IllegalStateException("Cannot step a game while its game loop is running");
+        }
+
+        if (!isSetUp) setUp(false);
+    }
+
+    /**
+     * Runs one update of the game.
+     * <p>
+     * Every update, whether from the game loop, from
+     * {@link #stepTicks(int, long)} or from a replay, goes through this
+     * method. Work posted by other threads is run first, followed by the
+     * delivery of submitted input events.
+     *
+     * @param elapsedTime time to advance the game by, in milliseconds
+     */
+    void runTick(long elapsedTime) {
+        Runnable work;
+        while ((work = posted.poll()) != null) {
+            work.run();
+        }
+
+        InputEvent event;
+        while ((event = inputs.poll()) != null) {
+            deliverInput(event);
+        }
+
+        SessionRecorder recorder = this.recorder;
+        if (recorder != null) {
+            recorder.recordTick(elapsedTime);
+        }
+
+        update(elapsedTime);
+        tickCount++;
+    }
+
+    /**
+     * Delivers an input event to the game, and records it if the session is
+     * being recorded.
+     *
+     * @param event the event to deliver
+     */
+    void deliverInput(InputEvent event) {
+        SessionRecorder recorder = this.recorder;
+        if (recorder != null) {
+            recorder.recordInput(event);
+        }
+
+        onInput(event);
+    }
+
+    /**
+     * Creates the scenes and starts the initial scene.
+     *
+     * @param threaded whether the scenes will be drawn on a render thread
+     * @throws RuntimeException if the scenes are not defined properly
+     */
+    private void setUp(boolean threaded) throws RuntimeException {
         List<Scene> scenes = getScenes();
 
         if (scenes.isEmpty()) {
             throw new RuntimeException("No scenes defined.");
         }
 
+        // Scenes that cannot draw from a snapshot would read the game while
+        // the update thread modifies it
+        if (threaded) {
+            for (Scene s : scenes) {
+                requireSnapshotRenderer(s);
+            }
+        }
+
         Class<? extends Scene> initialScene = getInitialScene();
         if (initialScene == null) {
             throw new RuntimeException("No initial scene defined.");
@@ -128,31 +571,122 @@ public abstract class BaseGame implements GameCallbacks {
         for (Scene s : scenes) {
             this.scenes.addScene(s);
         }
+        isSetUp = true;
 
         // Call the start callback
         this.onStart();
 
-        // Set flags so that the game can start
-        isOver = false;
-        isPaused = false;
+        // Set the state so that the game can start
+        state.compareAndSet(GameState.STARTING, GameState.RUNNING);
 
         // Start the initial scene
         startScene(initialScene);
+    }
 
-        // Start the game loop
-        loop.start();
+    /**
+     * Checks that a scene can be drawn on a render thread.
+     *
+     * @param scene the scene to check
+     * @throws IllegalStateException if the scene does not implement
+     *                               {@link SnapshotRenderer}
+     */
+    private static void requireSnapshotRenderer(Scene scene) {
+        if (!(scene instanceof SnapshotRenderer)) {
+            throw new IllegalStateException("Scene " + scene.getClass().getName()
+                    + " must implement SnapshotRenderer to be drawn on a render thread");
+        }
+    }
+
+    /**
+     * Runs a piece of work on the loop thread, right before the next update.
+     * <p>
+     * This is the way for other threads to modify the game, e.g. to deliver
+     * input or network messages. Posting never blocks, and work is run in the
+     * order it was posted. Work posted to a paused game runs after it resumes,
+     * and work posted to a finished game never runs.
+     *
+     * @param work the work to run
+     * @throws NullPointerException if the work is null
+     */
+    public void post(Runnable work) {
+        if (work == null) {
+            throw new NullPointerException("Work cannot be null");
+        }
+        posted.add(work);
+    }
+
+    /**
+     * Submits an input event to the game.
+     * <p>
+     * The event is delivered to {@link #onInput(InputEvent)} on the loop
+     * thread, right before the next update. Like {@link #post(Runnable)}, this
+     * may be called from any thread and never blocks. Unlike posted work,
+     * input events are recorded when the session is being recorded.
+     *
+     * @param event the event to submit
+     * @throws NullPointerException if the event is null
+     */
+    public void submitInput(InputEvent event) {
+        if (event == null) {
+            throw new NullPointerException("Event cannot be null");
+        }
+        inputs.add(event);
+    }
+
+    /**
+     * Called on the loop thread to handle an input event.
+     * <p>
+     * By default the event is passed on to the current scene.
+     *
+     * @param event the submitted event
+     * @see #submitInput(InputEvent)
+     */
+    public void onInput(InputEvent event) {
+        getCurrentScene().onInput(event);
+    }
+
+    /**
+     * Starts recording the session.
+     * <p>
+     * From the next update on, the elapsed time of every update and every
+     * input event delivered to the game are written to the recorder. Work
+     * posted with {@link #post(Runnable)} is not recorded, so a game that
+     * should be replayable must receive all outside changes as input events.
+     *
+     * @param recorder the recorder to write the session to
+     * @throws NullPointerException if the recorder is null
+     */
+    public void startRecording(SessionRecorder recorder) {
+        if (recorder == null) {
+            throw new NullPointerException("Recorder cannot be null");
+        }
+        this.recorder = recorder;
+    }
+
+    /**
+     * Stops recording the session.
+     * <p>
+     * The recorder is detached but not closed.
+     *
+     * @return the recorder that was attached, or null if the session was not
+     * being recorded
+     */
+    public SessionRecorder stopRecording() {
+        SessionRecorder recorder = this.recorder;
+        this.recorder = null;
+        return recorder;
     }
 
     /**
      * Pauses the game.
      * <p>
      * Game execution is paused and onPause() callback is invoked. This method has no
-     * effect if the game is already paused or if the game is finished.
+     * effect if the game is already paused or if the game is finished. The game
+     * loop is suspended and uses no CPU time until the game is resumed or ended.
      */
     public void pause() {
-        if (isOver || isPaused) return;
+        if (!state.compareAndSet(GameState.RUNNING, GameState.PAUSED)) return;
 
-        isPaused = true;
         this.onPaused();
     }
 
@@ -161,12 +695,16 @@ public abstract class BaseGame implements GameCallbacks {
      * <p>
      * The onResumed() callback is invoked and then the game execution is resumed.
      * This method has no effect if the game is not paused or already finished.
+     * The game is still paused while the callback runs; if it ends meanwhile,
+     * it is not resumed.
      */
     public void resume() {
-        if (isOver || !isPaused) return;
+        if (state.get() != GameState.PAUSED) return;
 
         this.onResume();
-        isPaused = false;
+        if (state.compareAndSet(GameState.PAUSED, GameState.RUNNING)) {
+            loop.wake();
+        }
     }
 
     /**
@@ -176,12 +714,25 @@ public abstract class BaseGame implements GameCallbacks {
      * effect if the game already ended.
      */
     public void end() {
-        if (isOver) return;
-
-        isOver = true;
-        isPaused = false;
-
+        GameState current;
+        do {
+            current = state.get();
+            if (current == GameState.OVER) return;
+        } while (!state.compareAndSet(current, GameState.OVER));
+
+        posted.clear();
+        inputs.clear();
         this.onOver();
+        loop.wake();
+    }
+
+    /**
+     * Get the current lifecycle state of the game.
+     *
+     * @return the state of the game
+     */
+    public GameState getState() {
+        return state.get();
     }
 
     /**
@@ -190,16 +741,20 @@ public abstract class BaseGame implements GameCallbacks {
      * @return true if game is over, false otherwise
      */
     public boolean isOver() {
-        return isOver;
+        return state.get() == GameState.OVER;
     }
 
     /**
      * Checks whether the game is running or paused.
+     * <p>
+     * For compatibility, a game that is not paused counts as running, even
+     * before it starts and after it ends. Use {@link #getState()} to tell
+     * these states apart.
      *
      * @return true if game running, false if paused
      */
     public boolean isRunning() {
-        return !isPaused;
+        return state.get() != GameState.PAUSED;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.saifkhichi.apis.gcore;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs every game loop on a new thread of its own.
+ * <p>
+ * The thread parks between iterations of the loop, and ends when the loop
+ * finishes. A suspended loop parks its thread indefinitely, until it is woken.
+ * This is the default scheduler of a game, and is a good choice when only a
+ * few games run at once.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class DedicatedThreadScheduler implements LoopScheduler {
+
+    /**
+     * Threads of all loops that have not finished yet.
+     */
+    private final ConcurrentMap<LoopTask, Worker> workers = new ConcurrentHashMap<>();
+
+    @Override
+    public void submit(LoopTask task) {
+        Worker worker = new Worker(task);
+        workers.put(task, worker);
+        worker.start();
+    }
+
+    @Override
+    public void wake(LoopTask task) {
+        Worker worker = workers.get(task);
+        if (worker != null) {
+            worker.woken.set(true);
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * The thread that runs a single loop.
+     */
+    private final class Worker extends Thread {
+
+        final LoopTask task;
+
+        /**
+         * Set when the loop should run again without waiting.
+         */
+        final AtomicBoolean woken = new AtomicBoolean();
+
+        Worker(LoopTask task) {
+            this.task = task;
+            setName("GameLoop-" + getId());
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!task.isFinished()) {
+                    waitUntil(task.runOnce());
+                }
+            } finally {
+                workers.remove(task);
+            }
+        }
+
+        /**
+         * Parks this thread until the given time, or until it is woken.
+         *
+         * @param time the time (from {@link System#nanoTime()}) to wait for,
+         *             or {@link LoopTask#SUSPEND} to wait until woken
+         */
+        private void waitUntil(long time) {
+            while (!woken.getAndSet(false) && !task.isFinished()) {
+                if (time == LoopTask.SUSPEND) {
+                    LockSupport.park(this);
+                } else {
+                    long waitTime = time - System.nanoTime();
+                    if (waitTime <= 0) return;
+                    LockSupport.parkNanos(this, waitTime);
+                }
+            }
+        }
+
+    }
+
+}
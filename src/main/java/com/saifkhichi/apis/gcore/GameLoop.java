@@ -1,20 +1,107 @@
 package com.saifkhichi.apis.gcore;
 
+import com.saifkhichi.apis.gcore.metrics.FrameStats;
+
 /**
  * The execution loop attached to an instance of {@link BaseGame}.
  * <p>
  * Every game runs inside this loop. It periodically refreshes the game state
  * after defined interval, and pauses or stops the execution with the game.
+ * How the game is advanced depends on the {@link LoopMode} of the game.
+ * <p>
+ * The loop does not own a thread. Each call to {@link #runOnce()} runs one
+ * iteration and returns when the next one is due, and the
+ * {@link LoopScheduler} of the game decides where and how to wait for it.
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  */
-class GameLoop extends Thread {
+class GameLoop implements LoopTask {
+
+    /**
+     * Number of nanoseconds in a millisecond.
+     */
+    static final long NANOS_PER_MILLI = 1000000L;
+
+    /**
+     * Number of nanoseconds in a second.
+     */
+    static final long NANOS_PER_SECOND = 1000000000L;
 
     /**
      * Game associated with this execution loop.
      */
     protected final BaseGame game;
 
+    /**
+     * Timing statistics of the game.
+     */
+    private final FrameStats stats;
+
+    /**
+     * Scheduler running this loop, or null if the loop has not started.
+     */
+    private volatile LoopScheduler scheduler;
+
+    /**
+     * Render thread of the game, or null if frames are drawn by this loop.
+     */
+    private volatile RenderLoop renderLoop;
+
+    /**
+     * Flag indicating whether the loop was suspended, and has to restart its
+     * clocks so that the time spent paused is not simulated.
+     */
+    private boolean suspended = false;
+
+    /**
+     * Flag indicating whether the first iteration has run.
+     */
+    private boolean initialized = false;
+
+    /**
+     * Loop mode of the game, fixed when the loop starts.
+     */
+    private LoopMode mode;
+
+    /**
+     * Whether frames are drawn by a separate {@link RenderLoop}.
+     */
+    private boolean threadedRendering;
+
+    /**
+     * Update interval in nanoseconds.
+     */
+    private long step;
+
+    /**
+     * Time of fixed steps not yet passed to the game because it is less than
+     * a millisecond, in nanoseconds.
+     */
+    private long stepRemainder;
+
+    /**
+     * Time (from {@link System#currentTimeMillis()}) of the last update in
+     * variable-step mode.
+     */
+    private long lastUpdate;
+
+    /**
+     * Time (from {@link System#nanoTime()}) of the previous iteration in
+     * fixed-step mode.
+     */
+    private long previous;
+
+    /**
+     * Real time not yet simulated in fixed-step mode, in nanoseconds.
+     */
+    private long accumulator;
+
+    /**
+     * Time when the loop asked to run next, or 0 if it asked to run as soon as
+     * possible.
+     */
+    private long dueTime;
+
     /**
      * Default constructor.
      * <p>
@@ -24,40 +111,260 @@ class GameLoop extends Thread {
      */
     public GameLoop(BaseGame game) {
         this.game = game;
+        this.stats = game.getFrameStats();
+    }
+
+    /**
+     * Hands this loop to a scheduler.
+     *
+     * @param scheduler the scheduler that runs this loop
+     */
+    void start(LoopScheduler scheduler) {
+        this.scheduler = scheduler;
+        scheduler.submit(this);
     }
 
     /**
-     * Performs the actual execution.
+     * Checks whether the loop has been started.
+     *
+     * @return true if the loop has been handed to a scheduler
+     */
+    boolean isStarted() {
+        return scheduler != null;
+    }
+
+    /**
+     * Makes the loop (and the render thread) notice a change in the state of
+     * the game right away, e.g. when a paused game resumes or a game ends.
+     */
+    void wake() {
+        LoopScheduler scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.wake(this);
+        }
+
+        RenderLoop renderLoop = this.renderLoop;
+        if (renderLoop != null) {
+            renderLoop.wake();
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return game.isOver();
+    }
+
+    /**
+     * Performs one iteration of the loop.
      * <p>
-     * This method defines the game loop which repeats itself after a defined
-     * time interval until the game is finished. It updates game states when
-     * the game is not paused or finished.
+     * Updates the game state when the game is not paused or finished, and
+     * draws it unless the game is headless or drawn on a separate thread.
+     * While the game is paused, the loop asks to be suspended.
+     *
+     * @return the time (from {@link System#nanoTime()}) when the next
+     * iteration is due
      */
     @Override
-    public void run() {
-        long lastUpdate = System.currentTimeMillis();
-        while (!game.isOver()) {
-            try {
-                long now = System.currentTimeMillis();
-                long elapsed = now - lastUpdate;
-                lastUpdate = now;
-
-                // update game states if the game is not paused
-                if (game.isRunning()) {
-                    synchronized (game) {
-                        game.update(elapsed);
-                        game.onDraw();
-                    }
-                }
-
-                // sleep for the remaining time interval to achieve the desired
-                // refresh rate
-                long waitTime = game.getUpdateInterval() - elapsed;
-                if (waitTime > 0) Thread.sleep(waitTime);
-            } catch (InterruptedException ignored) {
-                // no-op
-            }
-        }
-    }
-
-}
\ No newline at end of file
+    public long runOnce() {
+        long now = System.nanoTime();
+        if (!initialized) {
+            initialize(now);
+        } else if (dueTime != 0) {
+            stats.recordSleepOvershoot(now - dueTime);
+        }
+
+        if (game.getState() != GameState.RUNNING) {
+            // time spent paused is not simulated
+            suspended = true;
+            dueTime = 0;
+            return game.isOver() ? now : SUSPEND;
+        } else if (suspended) {
+            suspended = false;
+            resetClocks(now);
+        }
+
+        long next;
+        if (mode == LoopMode.HEADLESS) {
+            next = runHeadless(now);
+        } else if (mode == LoopMode.FIXED) {
+            next = runFixed(now);
+        } else {
+            next = runVariable(now);
+        }
+
+        dueTime = next > now ? next : 0;
+        return next;
+    }
+
+    /**
+     * Reads the loop settings of the game and starts the render thread.
+     *
+     * @param now the current time
+     */
+    private void initialize(long now) {
+        initialized = true;
+        mode = game.getLoopMode();
+        step = game.getUpdateIntervalNanos();
+        resetClocks(now);
+
+        threadedRendering = mode != LoopMode.HEADLESS && game.isThreadedRendering();
+        if (threadedRendering) {
+            renderLoop = new RenderLoop(game);
+            renderLoop.start();
+        }
+    }
+
+    /**
+     * Starts measuring elapsed time from now.
+     *
+     * @param now the current time
+     */
+    private void resetClocks(long now) {
+        lastUpdate = System.currentTimeMillis();
+        previous = now;
+        accumulator = 0;
+    }
+
+    /**
+     * Updates the game and, when frames are drawn on a separate thread,
+     * publishes the new state for the render thread.
+     *
+     * @param elapsed time to advance the game by, in milliseconds
+     */
+    private void update(long elapsed) {
+        long start = System.nanoTime();
+        game.runTick(elapsed);
+        stats.recordUpdate(System.nanoTime() - start);
+        if (threadedRendering) {
+            game.getRenderState().publish(game.getTickCount());
+        }
+    }
+
+    /**
+     * Updates the game by one fixed step.
+     * <p>
+     * Updates take whole milliseconds, but the update interval need not be
+     * one, e.g. 8.33 ms at 120 Hz. The part of a step that does not fit is
+     * carried over to the next step, so the game is advanced by 8 or 9 ms at
+     * a time and its time keeps up with the steps exactly.
+     */
+    private void updateStep() {
+        stepRemainder += step;
+        long elapsed = stepRemainder / NANOS_PER_MILLI;
+        stepRemainder -= elapsed * NANOS_PER_MILLI;
+        update(elapsed);
+    }
+
+    /**
+     * Draws the game and records how long it took.
+     *
+     * @param interpolation interpolation factor passed to the game, or a
+     *                      negative value to draw without one
+     */
+    private void draw(float interpolation) {
+        long start = System.nanoTime();
+        if (interpolation < 0) {
+            game.onDraw();
+        } else {
+            game.onDraw(interpolation);
+        }
+        stats.recordDraw(System.nanoTime() - start);
+    }
+
+    /**
+     * Runs an iteration with a variable time step.
+     * <p>
+     * The game is updated with the wall-clock time elapsed since the previous
+     * update, and then drawn.
+     *
+     * @param now the current time
+     * @return when the next iteration is due
+     * @see LoopMode#VARIABLE
+     */
+    private long runVariable(long now) {
+        long nowMillis = System.currentTimeMillis();
+        long elapsed = nowMillis - lastUpdate;
+        lastUpdate = nowMillis;
+
+        update(elapsed);
+        if (!threadedRendering) draw(-1);
+        stats.recordTick(System.nanoTime() - now, step);
+
+        // wait for the remaining time interval to achieve the desired
+        // refresh rate
+        long waitTime = step - elapsed * NANOS_PER_MILLI;
+        return waitTime > 0 ? now + waitTime : now;
+    }
+
+    /**
+     * Runs an iteration with a fixed time step.
+     * <p>
+     * Real time is accumulated with a nanosecond clock and consumed in steps
+     * of exactly one update interval (see {@link #updateStep()}). When the
+     * game falls behind, at most {@link BaseGame#getMaxCatchUpTicks()}
+     * updates are run before the next frame, and any remaining backlog is
+     * dropped. Each frame is drawn with the fraction of a step left in the
+     * accumulator, so that rendering can interpolate between the last two
+     * updates.
+     *
+     * @param now the current time
+     * @return when the next iteration is due
+     * @see LoopMode#FIXED
+     */
+    private long runFixed(long now) {
+        accumulator += now - previous;
+        previous = now;
+
+        int maxTicks = game.getMaxCatchUpTicks();
+        int ticks = 0;
+        while (accumulator >= step && ticks < maxTicks) {
+            updateStep();
+            accumulator -= step;
+            ticks++;
+        }
+
+        // frame-skip: drop the backlog we could not catch up on
+        if (accumulator >= step) {
+            accumulator %= step;
+        }
+
+        if (!threadedRendering) {
+            draw((float) accumulator / step);
+        }
+        stats.recordTick(System.nanoTime() - now, step);
+
+        // wait until the next update is due or the next frame should be
+        // drawn, whichever comes first
+        long waitTime = step - accumulator;
+        if (!threadedRendering) {
+            waitTime = Math.min(waitTime, game.getRenderInterval());
+        }
+        return now + waitTime;
+    }
+
+    /**
+     * Runs an iteration as fast as possible, without drawing.
+     * <p>
+     * The game is updated with a synthetic elapsed time of one update
+     * interval, and the next iteration is due immediately.
+     *
+     * @param now the current time
+     * @return when the next iteration is due
+     * @see LoopMode#HEADLESS
+     */
+    private long runHeadless(long now) {
+        updateStep();
+        return now;
+    }
+
+    /**
+     * Sleeps for the given number of nanoseconds.
+     *
+     * @param nanos time to sleep in nanoseconds
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    static void sleepNanos(long nanos) throws InterruptedException {
+        Thread.sleep(nanos / NANOS_PER_MILLI, (int) (nanos % NANOS_PER_MILLI));
+    }
+
+}
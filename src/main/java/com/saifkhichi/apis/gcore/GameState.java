@@ -0,0 +1,36 @@
+package com.saifkhichi.apis.gcore;
+
+/**
+ * Lifecycle states of a {@link BaseGame}.
+ * <p>
+ * A game starts in {@link #STARTING}, becomes {@link #RUNNING} once its scenes
+ * are set up, may move back and forth between {@link #RUNNING} and
+ * {@link #PAUSED}, and ends in {@link #OVER}. Once over, a game never leaves
+ * that state.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see BaseGame#getState()
+ */
+public enum GameState {
+
+    /**
+     * The game has not been started yet, or is being set up.
+     */
+    STARTING,
+
+    /**
+     * The game is being updated by its loop.
+     */
+    RUNNING,
+
+    /**
+     * The game is paused. Its loop is suspended and uses no CPU time.
+     */
+    PAUSED,
+
+    /**
+     * The game is finished.
+     */
+    OVER
+
+}
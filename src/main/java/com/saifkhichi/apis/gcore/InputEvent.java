@@ -0,0 +1,93 @@
+package com.saifkhichi.apis.gcore;
+
+/**
+ * An input event delivered to a game.
+ * <p>
+ * Input events are submitted from any thread with
+ * {@link BaseGame#submitInput(InputEvent)}, and delivered on the loop thread
+ * through {@link BaseGame#onInput(InputEvent)} right before the next update.
+ * Because they are delivered at update boundaries, input events can be
+ * recorded and replayed deterministically.
+ * <p>
+ * The meaning of the fields is up to the game. Typically the type tells a key
+ * press from a touch, the code identifies the key or pointer, and x and y hold
+ * a position.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public final class InputEvent {
+
+    private final int type;
+    private final int code;
+    private final float x;
+    private final float y;
+
+    /**
+     * Creates an input event without a position.
+     *
+     * @param type the type of the event
+     * @param code the key, button or pointer of the event
+     */
+    public InputEvent(int type, int code) {
+        this(type, code, 0.0f, 0.0f);
+    }
+
+    /**
+     * Creates an input event.
+     *
+     * @param type the type of the event
+     * @param code the key, button or pointer of the event
+     * @param x    the x coordinate of the event
+     * @param y    the y coordinate of the event
+     */
+    public InputEvent(int type, int code, float x, float y) {
+        this.type = type;
+        this.code = code;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        InputEvent that = (InputEvent) o;
+
+        if (type != that.type) return false;
+        if (code != that.code) return false;
+        if (Float.compare(that.x, x) != 0) return false;
+        return Float.compare(that.y, y) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type;
+        result = 31 * result + code;
+        result = 31 * result + Float.floatToIntBits(x);
+        result = 31 * result + Float.floatToIntBits(y);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("InputEvent(type=%s, code=%s, x=%s, y=%s)", type, code, x, y);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.saifkhichi.apis.gcore;
+
+/**
+ * Strategies used by the {@link GameLoop} to advance a game.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see BaseGame#setLoopMode(LoopMode)
+ */
+public enum LoopMode {
+
+    /**
+     * Updates the game once per frame with the measured wall-clock time since
+     * the previous frame, then sleeps for the rest of the update interval.
+     * <p>
+     * This is the original behaviour of the game loop. The simulation speed
+     * follows the host, so it drifts and stutters when a frame overruns.
+     */
+    VARIABLE,
+
+    /**
+     * Updates the game in fixed steps of one update interval (1/fps seconds,
+     * measured in nanoseconds), using an accumulator of real time measured with
+     * {@link System#nanoTime()}.
+     * <p>
+     * Any number of updates (up to {@link BaseGame#getMaxCatchUpTicks()}) may
+     * run before a frame is drawn, and frames are drawn with an interpolation
+     * factor describing how far the real time is between the last two updates.
+     */
+    FIXED,
+
+    /**
+     * Updates the game in fixed steps of one update interval (1/fps seconds),
+     * back to back without sleeping in between, and never draws.
+     * <p>
+     * Simulated time advances as fast as the host allows, independent of real
+     * time. This is meant for server-side simulation, training and tests.
+     *
+     * @see BaseGame#stepTicks(int, long)
+     */
+    HEADLESS
+
+}
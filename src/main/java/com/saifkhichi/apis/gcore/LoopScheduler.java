@@ -0,0 +1,35 @@
+package com.saifkhichi.apis.gcore;
+
+/**
+ * Runs game loops.
+ * <p>
+ * Every game hands its loop to a scheduler when it starts. The default
+ * scheduler, {@link DedicatedThreadScheduler}, runs each loop on a thread of
+ * its own. {@link SharedLoopScheduler} runs any number of loops on a fixed
+ * pool of threads instead.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see BaseGame#setScheduler(LoopScheduler)
+ */
+public interface LoopScheduler {
+
+    /**
+     * Starts running a loop until it finishes.
+     *
+     * @param task the loop to run
+     */
+    void submit(LoopTask task);
+
+    /**
+     * Runs a task again as soon as possible.
+     * <p>
+     * This is used to resume a suspended task, or to let a finished task
+     * notice that it has finished without waiting for its next iteration. It
+     * may be called from any thread at any time, including while the task is
+     * running, in which case its next iteration follows immediately.
+     *
+     * @param task a task submitted to this scheduler
+     */
+    void wake(LoopTask task);
+
+}
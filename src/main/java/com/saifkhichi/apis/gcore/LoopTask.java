@@ -0,0 +1,44 @@
+package com.saifkhichi.apis.gcore;
+
+/**
+ * A game loop that can be driven by a {@link LoopScheduler}.
+ * <p>
+ * A loop task never blocks. Each call to {@link #runOnce()} runs one iteration
+ * of the loop (some updates and possibly a frame) and tells the scheduler
+ * when the task wants to run again. It is up to the scheduler to wait until
+ * then, on a thread of its choosing.
+ * <p>
+ * A task may also ask to be suspended by returning {@link #SUSPEND}, e.g.
+ * while its game is paused. The scheduler then does not run it again until it
+ * is woken through {@link LoopScheduler#wake(LoopTask)}.
+ * <p>
+ * A scheduler must never run the same task on two threads at once, and must
+ * stop running a task once {@link #isFinished()} returns true.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public interface LoopTask {
+
+    /**
+     * Value returned by {@link #runOnce()} to ask the scheduler not to run the
+     * task again until it is woken.
+     */
+    long SUSPEND = Long.MAX_VALUE;
+
+    /**
+     * Runs one iteration of the loop.
+     *
+     * @return the time (from {@link System#nanoTime()}) when the task should
+     * run next; a time in the past means as soon as possible, and
+     * {@link #SUSPEND} means only after the task is woken
+     */
+    long runOnce();
+
+    /**
+     * Checks whether the loop has finished.
+     *
+     * @return true if the task should not run anymore, false otherwise
+     */
+    boolean isFinished();
+
+}
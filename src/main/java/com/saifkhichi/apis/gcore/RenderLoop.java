@@ -0,0 +1,82 @@
+package com.saifkhichi.apis.gcore;
+
+import com.saifkhichi.apis.gcore.render.RenderState;
+import com.saifkhichi.apis.gcore.render.StateSnapshot;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The render loop attached to an instance of {@link BaseGame} when frames are
+ * drawn on a separate thread.
+ * <p>
+ * This loop repeatedly takes the latest snapshot from the render state of the
+ * game and draws it, at most at the render rate of the game. It runs
+ * concurrently with the game loop, so a slow frame does not delay the next
+ * update. While the game is paused, the render thread is parked.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see BaseGame#setThreadedRendering(boolean)
+ */
+class RenderLoop extends Thread {
+
+    /**
+     * Game associated with this render loop.
+     */
+    private final BaseGame game;
+
+    /**
+     * Creates a render loop for the given game.
+     *
+     * @param game game associated with this render loop
+     */
+    RenderLoop(BaseGame game) {
+        this.game = game;
+        setName("RenderLoop-" + getId());
+        setDaemon(true);
+    }
+
+    /**
+     * Draws frames until the game is finished.
+     * <p>
+     * Nothing is drawn before the first snapshot is published. While the game
+     * is paused the thread parks until it is woken by {@link #wake()}.
+     */
+    @Override
+    public void run() {
+        final RenderState state = game.getRenderState();
+        final long step = game.getUpdateIntervalNanos();
+
+        while (!game.isOver()) {
+            if (game.getState() == GameState.PAUSED) {
+                LockSupport.park(this);
+                continue;
+            }
+
+            long frameStart = System.nanoTime();
+            StateSnapshot snapshot = state.acquire();
+            if (snapshot.getTick() >= 0) {
+                long sincePublish = frameStart - snapshot.getPublishTime();
+                float interpolation = Math.min(1.0f, (float) sincePublish / step);
+                game.onDraw(snapshot, interpolation);
+                game.getFrameStats().recordDraw(System.nanoTime() - frameStart);
+            }
+
+            long renderInterval = game.getRenderInterval();
+            if (renderInterval > 0) {
+                long waitTime = renderInterval - (System.nanoTime() - frameStart);
+                if (waitTime > 0) LockSupport.parkNanos(this, waitTime);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Wakes the render thread if it is parked, e.g. because the game resumed
+     * or ended.
+     */
+    void wake() {
+        LockSupport.unpark(this);
+    }
+
+}
@@ -0,0 +1,229 @@
+package com.saifkhichi.apis.gcore;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Records a game session into a compact binary journal.
+ * <p>
+ * While attached to a game with {@link BaseGame#startRecording(SessionRecorder)},
+ * the recorder logs the elapsed time of every update and every input event in
+ * the order they are delivered to the game. Replaying the journal with a
+ * {@link SessionReplayer} drives the game through exactly the same sequence of
+ * updates and inputs.
+ * <p>
+ * Runs of updates with the same elapsed time (which is every update in
+ * {@link LoopMode#FIXED} mode) are stored as a single record, and numbers are
+ * stored as variable-length integers, so an hour-long session at a fixed rate
+ * takes little more space than its inputs.
+ * <p>
+ * Recording happens on the loop thread and never throws. If writing fails,
+ * the recorder stops recording and keeps the error, which can be queried with
+ * {@link #getError()}.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class SessionRecorder {
+
+    /**
+     * Magic number at the start of every journal ("GCSJ").
+     */
+    static final int MAGIC = 0x4743534A;
+
+    /**
+     * Version of the journal format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Record of a run of updates with the same elapsed time.
+     */
+    static final int TAG_TICKS = 1;
+
+    /**
+     * Record of an input event.
+     */
+    static final int TAG_INPUT = 2;
+
+    /**
+     * Record marking the end of the journal.
+     */
+    static final int TAG_END = 3;
+
+    private final DataOutputStream out;
+
+    /**
+     * Elapsed time of the updates in the pending run.
+     */
+    private long runDelta = -1;
+
+    /**
+     * Number of updates in the pending run.
+     */
+    private long runLength = 0;
+
+    /**
+     * Total number of updates recorded.
+     */
+    private long ticks = 0;
+
+    private boolean closed = false;
+
+    private IOException error;
+
+    /**
+     * Creates a recorder that writes a journal to the given stream.
+     *
+     * @param out the stream to write the journal to
+     * @throws IOException if the journal header cannot be written
+     */
+    public SessionRecorder(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    /**
+     * Records an update.
+     *
+     * @param elapsedTime elapsed time passed to the update, in milliseconds
+     */
+    synchronized void recordTick(long elapsedTime) {
+        if (closed || error != null) return;
+
+        if (elapsedTime != runDelta) {
+            flushRun();
+            runDelta = elapsedTime;
+        }
+        runLength++;
+        ticks++;
+    }
+
+    /**
+     * Records an input event.
+     *
+     * @param event the event delivered to the game
+     */
+    synchronized void recordInput(InputEvent event) {
+        if (closed || error != null) return;
+
+        flushRun();
+        try {
+            out.writeByte(TAG_INPUT);
+            writeVarLong(out, zigZag(event.getType()));
+            writeVarLong(out, zigZag(event.getCode()));
+            out.writeFloat(event.getX());
+            out.writeFloat(event.getY());
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    /**
+     * Get the number of updates recorded so far.
+     *
+     * @return the number of recorded ticks
+     */
+    public synchronized long getTickCount() {
+        return ticks;
+    }
+
+    /**
+     * Get the error that stopped the recording.
+     *
+     * @return the error, or null if recording has not failed
+     */
+    public synchronized IOException getError() {
+        return error;
+    }
+
+    /**
+     * Writes everything recorded so far to the underlying stream.
+     *
+     * @throws IOException if writing fails, or has failed before
+     */
+    public synchronized void flush() throws IOException {
+        if (error != null) throw error;
+        if (closed) return;
+
+        flushRun();
+        if (error != null) throw error;
+        out.flush();
+    }
+
+    /**
+     * Ends the journal and closes the underlying stream.
+     * <p>
+     * Nothing is recorded after the recorder is closed.
+     *
+     * @throws IOException if writing fails, or has failed before
+     */
+    public synchronized void close() throws IOException {
+        if (closed) return;
+
+        try {
+            flushRun();
+            if (error != null) throw error;
+            out.writeByte(TAG_END);
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the pending run of updates, if any.
+     */
+    private void flushRun() {
+        if (runLength == 0) return;
+
+        try {
+            out.writeByte(TAG_TICKS);
+            writeVarLong(out, runLength);
+            writeVarLong(out, runDelta);
+        } catch (IOException e) {
+            error = e;
+        }
+        runLength = 0;
+    }
+
+    /**
+     * Maps a signed integer to an unsigned one, so that numbers with a small
+     * magnitude have a short encoding.
+     *
+     * @param value a signed integer
+     * @return the zig-zag encoding of the value
+     */
+    static long zigZag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reverses {@link #zigZag(int)}.
+     *
+     * @param value a zig-zag encoded integer
+     * @return the signed integer
+     */
+    static int unZigZag(long value) {
+        int v = (int) value;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Writes a number in 7-bit groups, least significant first.
+     *
+     * @param out   the stream to write to
+     * @param value the number to write
+     * @throws IOException if writing fails
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.saifkhichi.apis.gcore;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Replays a journal written by a {@link SessionRecorder}.
+ * <p>
+ * Replaying drives a game through the recorded sequence of updates and input
+ * events on the calling thread, as fast as possible and without drawing. The
+ * game must not have been started; like {@link BaseGame#stepTicks(int, long)},
+ * replaying sets the game up on its own. Provided the game only depends on the
+ * elapsed time and input events, a replay ends in exactly the same state as
+ * the recorded session.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class SessionReplayer {
+
+    private final DataInputStream in;
+
+    /**
+     * Creates a replayer that reads a journal from the given stream.
+     *
+     * @param in the stream to read the journal from
+     * @throws IOException if the stream does not hold a journal
+     */
+    public SessionReplayer(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != SessionRecorder.MAGIC) {
+            throw new IOException("Not a session journal");
+        }
+
+        int version = this.in.readUnsignedByte();
+        if (version != SessionRecorder.VERSION) {
+            throw new IOException("Unsupported session journal version " + version);
+        }
+    }
+
+    /**
+     * Replays the whole journal into a game.
+     * <p>
+     * Replaying stops early if the game ends. A journal that was not closed
+     * properly (e.g. because the process died) is replayed up to the last
+     * complete record.
+     *
+     * @param game the game to replay the session into
+     * @return the number of updates replayed
+     * @throws IOException           if the journal cannot be read
+     * @throws IllegalStateException if the game loop has been started
+     */
+    public long replay(BaseGame game) throws IOException {
+        game.prepareForStepping();
+
+        long ticks = 0;
+        while (!game.isOver()) {
+            // Each record is read completely before it is applied, so that a
+            // record cut short by the end of the stream is not applied at all
+            int tag;
+            long count = 0, elapsedTime = 0;
+            InputEvent event = null;
+            try {
+                tag = in.readUnsignedByte();
+                if (tag == SessionRecorder.TAG_TICKS) {
+                    count = readVarLong();
+                    elapsedTime = readVarLong();
+                } else if (tag == SessionRecorder.TAG_INPUT) {
+                    int type = SessionRecorder.unZigZag(readVarLong());
+                    int code = SessionRecorder.unZigZag(readVarLong());
+                    float x = in.readFloat();
+                    float y = in.readFloat();
+                    event = new InputEvent(type, code, x, y);
+                }
+            } catch (EOFException e) {
+                break;
+            }
+
+            if (tag == SessionRecorder.TAG_END) {
+                break;
+            } else if (tag == SessionRecorder.TAG_TICKS) {
+                for (long i = 0; i < count && !game.isOver(); i++) {
+                    game.runTick(elapsedTime);
+                    ticks++;
+                }
+            } else if (tag == SessionRecorder.TAG_INPUT) {
+                game.deliverInput(event);
+            } else {
+                throw new IOException("Corrupt session journal: unknown record " + tag);
+            }
+        }
+        return ticks;
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if closing fails
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads a number written by {@link SessionRecorder#writeVarLong}.
+     *
+     * @return the number
+     * @throws IOException if the number cannot be read
+     */
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Corrupt session journal: malformed number");
+    }
+
+}
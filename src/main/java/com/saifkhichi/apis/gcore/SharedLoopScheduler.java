@@ -0,0 +1,284 @@
+package com.saifkhichi.apis.gcore;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs many game loops on a fixed pool of threads.
+ * <p>
+ * Loops are kept in a queue ordered by the time they next want to run. Each
+ * worker thread takes the loop that is due first, runs one iteration of it,
+ * and puts it back with its new due time. A loop is never run by two workers
+ * at once, so games need no extra synchronization, and every game keeps its
+ * own refresh rate.
+ * <p>
+ * When the pool is overloaded, loops are served earliest-deadline-first: the
+ * loop that has waited longest past its due time always runs next, so all
+ * games slow down evenly instead of some of them starving. An idle pool
+ * costs no CPU, as workers only wake up when a loop is due, and suspended
+ * loops (e.g. of paused games) are taken out of the queue until woken.
+ * <p>
+ * A single scheduler can be shared by any number of games through
+ * {@link BaseGame#setScheduler(LoopScheduler)}. The pool keeps running until
+ * {@link #shutdown()} is called.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class SharedLoopScheduler implements LoopScheduler {
+
+    /**
+     * Loops waiting for their next iteration, ordered by due time.
+     */
+    private final DelayQueue<Entry> queue = new DelayQueue<>();
+
+    /**
+     * All loops that have not finished yet, queued, running or suspended.
+     */
+    private final ConcurrentMap<LoopTask, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Counter used to break ties between loops due at the same time, so that
+     * they are run in the order they were queued.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Thread[] workers;
+
+    /**
+     * Creates a scheduler with one worker thread per available processor.
+     */
+    public SharedLoopScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scheduler with the given number of worker threads.
+     *
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if the number of threads is less than 1
+     */
+    public SharedLoopScheduler(int threads) {
+        this(threads, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a scheduler whose worker threads are created by the given
+     * factory.
+     *
+     * @param threads       the number of worker threads
+     * @param threadFactory factory used to create the worker threads
+     * @throws IllegalArgumentException if the number of threads is less than 1
+     */
+    public SharedLoopScheduler(int threads, ThreadFactory threadFactory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one worker thread is required");
+        }
+
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                work();
+            }
+        };
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = threadFactory.newThread(worker);
+            workers[i].start();
+        }
+    }
+
+    @Override
+    public void submit(LoopTask task) {
+        if (task == null) {
+            throw new NullPointerException("Task cannot be null");
+        }
+
+        Entry entry = new Entry(task);
+        entries.put(task, entry);
+        enqueue(entry, System.nanoTime());
+    }
+
+    @Override
+    public void wake(LoopTask task) {
+        Entry entry = entries.get(task);
+        if (entry == null) return;
+
+        while (true) {
+            int state = entry.state.get();
+            if (state == Entry.RUNNING) {
+                // the worker running it will queue it again right away
+                if (entry.state.compareAndSet(Entry.RUNNING, Entry.WOKEN)) return;
+            } else if (state == Entry.SUSPENDED) {
+                if (entry.state.compareAndSet(Entry.SUSPENDED, Entry.QUEUED)) {
+                    enqueue(entry, System.nanoTime());
+                    return;
+                }
+            } else {
+                // already queued, or already woken while running
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the number of loops currently managed by this scheduler.
+     *
+     * @return the number of loops that have not finished yet
+     */
+    public int getLoopCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the number of loops waiting in the queue.
+     *
+     * @return the number of queued loops, excluding those being run right now
+     * and those that are suspended
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops all worker threads.
+     * <p>
+     * Loops that are still running are abandoned; they are not finished and
+     * will not run again.
+     */
+    public void shutdown() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Runs due loops until the worker thread is interrupted.
+     */
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            LoopTask task = entry.task;
+            if (task.isFinished()) {
+                entries.remove(task);
+                continue;
+            }
+
+            entry.state.set(Entry.RUNNING);
+            long next;
+            try {
+                next = task.runOnce();
+            } catch (RuntimeException e) {
+                // a failing game is dropped, but must not take the worker down
+                entries.remove(task);
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                continue;
+            }
+
+            if (task.isFinished()) {
+                entries.remove(task);
+            } else if (next != LoopTask.SUSPEND) {
+                if (entry.state.getAndSet(Entry.QUEUED) == Entry.WOKEN) {
+                    next = System.nanoTime();
+                }
+                enqueue(entry, next);
+            } else if (!entry.state.compareAndSet(Entry.RUNNING, Entry.SUSPENDED)) {
+                // woken while running, so it must not be suspended
+                entry.state.set(Entry.QUEUED);
+                enqueue(entry, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Puts a loop in the queue.
+     *
+     * @param entry the loop to queue
+     * @param time  when the loop is due
+     */
+    private void enqueue(Entry entry, long time) {
+        entry.schedule(time, sequence.getAndIncrement());
+        queue.add(entry);
+    }
+
+    /**
+     * A loop in the queue, with the time it should run next.
+     */
+    private static final class Entry implements Delayed {
+
+        /**
+         * The loop is in the queue.
+         */
+        static final int QUEUED = 0;
+
+        /**
+         * The loop is being run by a worker.
+         */
+        static final int RUNNING = 1;
+
+        /**
+         * The loop is being run by a worker, and was woken meanwhile.
+         */
+        static final int WOKEN = 2;
+
+        /**
+         * The loop is suspended, and not in the queue.
+         */
+        static final int SUSPENDED = 3;
+
+        final LoopTask task;
+
+        /**
+         * One of {@link #QUEUED}, {@link #RUNNING}, {@link #WOKEN} or
+         * {@link #SUSPENDED}.
+         */
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        /**
+         * Time (from {@link System#nanoTime()}) when the loop is due.
+         */
+        long time;
+
+        /**
+         * Tie breaker for loops due at the same time.
+         */
+        long order;
+
+        Entry(LoopTask task) {
+            this.task = task;
+        }
+
+        void schedule(long time, long order) {
+            this.time = time;
+            this.order = order;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            Entry other = (Entry) o;
+            long diff = time - other.time;
+            if (diff != 0) return diff < 0 ? -1 : 1;
+            return Long.compare(order, other.order);
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.saifkhichi.apis.gcore.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing statistics of a game loop.
+ * <p>
+ * The game loop records how long each phase of a frame takes: updating the
+ * game, drawing it, the total time spent working on a frame, and how much
+ * longer than requested the loop slept between frames. It also counts frames
+ * that missed their deadline, i.e. took longer than the update interval of
+ * the game.
+ * <p>
+ * Statistics accumulate until they are reset. To look at them per interval,
+ * periodically call {@link #drainTo(FrameStats)} with a second instance,
+ * which is then read at leisure while the loop keeps recording.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class FrameStats {
+
+    private final LatencyHistogram update = new LatencyHistogram();
+    private final LatencyHistogram draw = new LatencyHistogram();
+    private final LatencyHistogram sleepOvershoot = new LatencyHistogram();
+    private final LatencyHistogram tick = new LatencyHistogram();
+    private final AtomicLong missedDeadlines = new AtomicLong();
+
+    /**
+     * Get the durations of game updates.
+     *
+     * @return histogram of update times
+     */
+    public LatencyHistogram getUpdateTimes() {
+        return update;
+    }
+
+    /**
+     * Get the durations of drawing frames.
+     *
+     * @return histogram of draw times
+     */
+    public LatencyHistogram getDrawTimes() {
+        return draw;
+    }
+
+    /**
+     * Get the time the loop slept longer than it asked to.
+     *
+     * @return histogram of sleep overshoots
+     */
+    public LatencyHistogram getSleepOvershoots() {
+        return sleepOvershoot;
+    }
+
+    /**
+     * Get the total time spent working on each frame, i.e. all updates and
+     * drawing between two sleeps.
+     *
+     * @return histogram of frame times
+     */
+    public LatencyHistogram getTickTimes() {
+        return tick;
+    }
+
+    /**
+     * Get the number of frames that took longer than the update interval.
+     *
+     * @return the number of missed deadlines
+     */
+    public long getMissedDeadlines() {
+        return missedDeadlines.get();
+    }
+
+    /**
+     * Records the duration of an update.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void recordUpdate(long nanos) {
+        update.record(nanos);
+    }
+
+    /**
+     * Records the duration of drawing a frame.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void recordDraw(long nanos) {
+        draw.record(nanos);
+    }
+
+    /**
+     * Records how much longer than requested the loop slept.
+     *
+     * @param nanos overshoot in nanoseconds
+     */
+    public void recordSleepOvershoot(long nanos) {
+        sleepOvershoot.record(nanos);
+    }
+
+    /**
+     * Records the total time spent working on a frame.
+     *
+     * @param nanos duration in nanoseconds
+     * @param deadline the update interval in nanoseconds; the frame counts as
+     *                 a missed deadline if it took longer than this
+     */
+    public void recordTick(long nanos, long deadline) {
+        tick.record(nanos);
+        if (nanos > deadline) {
+            missedDeadlines.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all recorded statistics.
+     */
+    public void reset() {
+        update.reset();
+        draw.reset();
+        sleepOvershoot.reset();
+        tick.reset();
+        missedDeadlines.set(0);
+    }
+
+    /**
+     * Moves all recorded statistics into another instance.
+     * <p>
+     * Afterwards this instance is empty, and the target holds the statistics
+     * recorded since the last reset.
+     *
+     * @param target the instance to move the statistics into
+     * @see LatencyHistogram#drainTo(LatencyHistogram)
+     */
+    public void drainTo(FrameStats target) {
+        update.drainTo(target.update);
+        draw.drainTo(target.draw);
+        sleepOvershoot.drainTo(target.sleepOvershoot);
+        tick.drainTo(target.tick);
+        target.missedDeadlines.set(missedDeadlines.getAndSet(0));
+    }
+
+}
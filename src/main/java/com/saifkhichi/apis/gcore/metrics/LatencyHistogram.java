@@ -0,0 +1,218 @@
+package com.saifkhichi.apis.gcore.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size histogram of durations in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into
+ * 32 equal buckets, so any value is reported with a relative error of at most
+ * about 3%. Values up to 2^40 ns (about 18 minutes) are counted precisely;
+ * larger values are counted in the last bucket, but the maximum is always
+ * exact.
+ * <p>
+ * Recording never allocates and never blocks, and values may be recorded and
+ * read from different threads. Reads are not atomic with respect to
+ * concurrent recording, so a percentile computed while values are being
+ * recorded may not include the very latest values.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of bits used for the linear part of a bucket index.
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * Number of buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest value counted in its own bucket.
+     */
+    private static final long MAX_TRACKABLE = (1L << 40) - 1;
+
+    /**
+     * Total number of buckets.
+     */
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values are counted
+     *              as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        counts.incrementAndGet(indexOf(Math.min(nanos, MAX_TRACKABLE)));
+        count.incrementAndGet();
+        sum.addAndGet(nanos);
+
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Get the number of recorded durations.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the largest recorded duration.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the mean of the recorded durations.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Get the duration below which the given percentage of values fall.
+     * <p>
+     * For example, {@code getValueAtPercentile(99.9)} is the p99.9 duration.
+     * The result is the upper bound of the bucket the percentile falls in,
+     * and never larger than {@link #getMax()}.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the duration in nanoseconds, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Get the median duration.
+     *
+     * @return the p50 duration in nanoseconds
+     */
+    public long getP50() {
+        return getValueAtPercentile(50);
+    }
+
+    /**
+     * Get the 99th percentile duration.
+     *
+     * @return the p99 duration in nanoseconds
+     */
+    public long getP99() {
+        return getValueAtPercentile(99);
+    }
+
+    /**
+     * Get the 99.9th percentile duration.
+     *
+     * @return the p99.9 duration in nanoseconds
+     */
+    public long getP999() {
+        return getValueAtPercentile(99.9);
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /**
+     * Moves all recorded durations into another histogram.
+     * <p>
+     * Afterwards this histogram is empty and the target holds the values
+     * recorded since the last reset, replacing its previous contents. Values
+     * recorded concurrently end up in exactly one of the two histograms, so
+     * this can be used to read a histogram per interval without losing data.
+     *
+     * @param target the histogram to move the values into
+     */
+    public void drainTo(LatencyHistogram target) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = counts.getAndSet(i, 0);
+            target.counts.set(i, n);
+            total += n;
+        }
+        count.addAndGet(-total);
+        target.count.set(total);
+        target.sum.set(sum.getAndSet(0));
+        target.max.set(max.getAndSet(0));
+    }
+
+    /**
+     * Get the bucket a value is counted in.
+     *
+     * @param value a non-negative value
+     * @return index of the bucket
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Get the largest value counted in a bucket.
+     *
+     * @param index index of the bucket
+     * @return the upper bound of the bucket
+     */
+    private static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.saifkhichi.apis.gcore.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Usage statistics of an object pool.
+ * <p>
+ * A pool counts how often an object was taken from the pool (a hit) or had
+ * to be created because the pool was empty (a miss), and how often a
+ * returned object was kept or dropped because the pool was full. A high miss
+ * rate in steady state means the pool is too small.
+ * <p>
+ * Every thread records into counters of its own, which only that thread
+ * writes, and the counters of all threads are added up when the statistics
+ * are read. Recording thus never makes threads compete for a cache line, and
+ * costs about as much as incrementing a field. Reading costs a pass over the
+ * threads that have used the pool.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class PoolStats {
+
+    private static final int HITS = 0, MISSES = 1, RETURNS = 2, DROPS = 3;
+
+    /**
+     * Number of counters in a cell.
+     */
+    private static final int COUNTERS = 4;
+
+    /**
+     * Unused slots before and after the counters of a cell, so that the
+     * counters of two threads never share a cache line.
+     */
+    private static final int PADDING = 8;
+
+    /**
+     * Counters of every thread that has recorded anything.
+     */
+    private final List<AtomicLongArray> cells = new CopyOnWriteArrayList<AtomicLongArray>();
+
+    private final ThreadLocal<AtomicLongArray> cell = new ThreadLocal<AtomicLongArray>() {
+        @Override
+        protected AtomicLongArray initialValue() {
+            AtomicLongArray cell = new AtomicLongArray(PADDING + COUNTERS + PADDING);
+            cells.add(cell);
+            return cell;
+        }
+    };
+
+    /**
+     * Amounts added to the sums of the cells, which is how the statistics are
+     * reset without writing to the counters of other threads.
+     */
+    private final AtomicLong[] offsets = {
+            new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()
+    };
+
+    /**
+     * Get the number of objects taken from the pool.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return get(HITS);
+    }
+
+    /**
+     * Get the number of objects created because the pool was empty.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return get(MISSES);
+    }
+
+    /**
+     * Get the share of requests served from the pool.
+     *
+     * @return hits divided by all requests, or 0 if there were none
+     */
+    public double getHitRate() {
+        long hits = getHits(), total = hits + getMisses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Get the number of objects returned to and kept by the pool.
+     *
+     * @return the number of returns
+     */
+    public long getReturns() {
+        return get(RETURNS);
+    }
+
+    /**
+     * Get the number of returned objects dropped because the pool was full.
+     *
+     * @return the number of drops
+     */
+    public long getDrops() {
+        return get(DROPS);
+    }
+
+    /**
+     * Records a request served from the pool.
+     */
+    public void recordHit() {
+        record(HITS);
+    }
+
+    /**
+     * Records a request for which an object had to be created.
+     */
+    public void recordMiss() {
+        record(MISSES);
+    }
+
+    /**
+     * Records an object returned to the pool.
+     */
+    public void recordReturn() {
+        record(RETURNS);
+    }
+
+    /**
+     * Records a returned object dropped because the pool was full.
+     */
+    public void recordDrop() {
+        record(DROPS);
+    }
+
+    /**
+     * Removes all recorded statistics.
+     */
+    public void reset() {
+        for (int counter = 0; counter < COUNTERS; counter++) {
+            offsets[counter].addAndGet(-get(counter));
+        }
+    }
+
+    /**
+     * Moves all recorded statistics into another instance.
+     * <p>
+     * Afterwards this instance is empty, and the target holds the statistics
+     * recorded since the last reset.
+     *
+     * @param target the instance to move the statistics into
+     */
+    public void drainTo(PoolStats target) {
+        for (int counter = 0; counter < COUNTERS; counter++) {
+            long value = get(counter);
+            offsets[counter].addAndGet(-value);
+            target.offsets[counter].addAndGet(value - target.get(counter));
+        }
+    }
+
+    /**
+     * Increments a counter of the calling thread.
+     * <p>
+     * Only the calling thread writes its counters, so the increment needs no
+     * atomic read-modify-write. The ordered write makes it visible to readers
+     * without a fence.
+     */
+    private void record(int counter) {
+        AtomicLongArray cell = this.cell.get();
+        int i = PADDING + counter;
+        cell.lazySet(i, cell.get(i) + 1);
+    }
+
+    /**
+     * Adds up a counter of all threads.
+     */
+    private long get(int counter) {
+        long sum = offsets[counter].get();
+        for (AtomicLongArray cell : cells) {
+            sum += cell.get(PADDING + counter);
+        }
+        return sum;
+    }
+
+}
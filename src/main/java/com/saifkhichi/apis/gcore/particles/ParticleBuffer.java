@@ -0,0 +1,78 @@
+package com.saifkhichi.apis.gcore.particles;
+
+import java.util.Arrays;
+
+/**
+ * The drawable state of the particles of a {@link ParticleSystem}, filled by
+ * {@link ParticleSystem#fill(ParticleBuffer)}.
+ * <p>
+ * The buffer is laid out the way drawing backends upload vertex data: the
+ * {@link #getVertices() vertices} hold three floats per particle (x, y and
+ * size), and the {@link #getColors() colors} one packed 0xAARRGGBB int per
+ * particle. A backend can draw all particles from the two arrays at once,
+ * e.g. as point sprites, instead of drawing every particle on its own.
+ * <p>
+ * A buffer is reused for every fill and only grows. To draw on another
+ * thread, fill a buffer that the other thread is not reading, e.g. one of
+ * two buffers used in turn.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public final class ParticleBuffer {
+
+    /**
+     * Number of floats per particle in {@link #vertices}.
+     */
+    public static final int STRIDE = 3;
+
+    /**
+     * Number of particles in the buffer.
+     */
+    int size = 0;
+
+    float[] vertices = new float[0];
+    int[] colors = new int[0];
+
+    /**
+     * Makes sure this buffer can hold the given number of particles.
+     *
+     * @param capacity the required number of particles
+     */
+    void ensureCapacity(int capacity) {
+        if (colors.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, colors.length * 2);
+        vertices = Arrays.copyOf(vertices, STRIDE * newCapacity);
+        colors = Arrays.copyOf(colors, newCapacity);
+    }
+
+    /**
+     * Get the number of particles in the buffer.
+     *
+     * @return the number of particles filled in
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the positions and sizes of the particles. Only the first
+     * {@code STRIDE * size()} entries are valid.
+     *
+     * @return x, y and size of each particle, one after the other
+     */
+    public float[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Get the colors of the particles. Only the first {@code size()} entries
+     * are valid.
+     *
+     * @return the color of each particle, as 0xAARRGGBB
+     */
+    public int[] getColors() {
+        return colors;
+    }
+
+}
@@ -0,0 +1,206 @@
+package com.saifkhichi.apis.gcore.particles;
+
+/**
+ * Spawns particles into a {@link ParticleSystem}, e.g. a torch, a fountain
+ * or an explosion.
+ * <p>
+ * An emitter spawns particles at its position, at a steady
+ * {@link #setRate(float) rate} and in {@link #burst(int) bursts}. Each
+ * particle gets a random lifetime, speed and direction within the ranges of
+ * the emitter. The random numbers come from a generator of the emitter
+ * itself, so two emitters created with the same seed spawn the same
+ * particles.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see ParticleSystem#addEmitter(ParticleEmitter)
+ */
+public class ParticleEmitter {
+
+    private float x, y;
+    private float rate = 0.0f;
+    private float minLifetime = 1.0f, maxLifetime = 1.0f;
+    private float minSpeed = 0.0f, maxSpeed = 0.0f;
+    private float direction = 90.0f, spread = 360.0f;
+    private boolean enabled = true;
+
+    /**
+     * Particles owed by the steady rate, carried over to the next update
+     * until a whole particle is due.
+     */
+    private float pending = 0.0f;
+
+    /**
+     * Particles requested by {@link #burst(int)} since the last update.
+     */
+    private int burst = 0;
+
+    /**
+     * State of the random number generator.
+     */
+    private long seed;
+
+    /**
+     * Creates an emitter.
+     *
+     * @param x the x coordinate of the emitter
+     * @param y the y coordinate of the emitter
+     */
+    public ParticleEmitter(float x, float y) {
+        this(x, y, System.nanoTime());
+    }
+
+    /**
+     * Creates an emitter that spawns the same particles every time.
+     *
+     * @param x    the x coordinate of the emitter
+     * @param y    the y coordinate of the emitter
+     * @param seed the seed of the random numbers of the emitter
+     */
+    public ParticleEmitter(float x, float y, long seed) {
+        setPosition(x, y);
+        this.seed = seed == 0 ? 1 : seed;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * Moves the emitter, e.g. to follow a sprite.
+     *
+     * @param x the x coordinate of the emitter
+     * @param y the y coordinate of the emitter
+     */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public float getRate() {
+        return rate;
+    }
+
+    /**
+     * Set how many particles the emitter spawns per second.
+     *
+     * @param rate the number of particles per second, or 0 for bursts only
+     * @throws IllegalArgumentException if the rate is negative
+     */
+    public void setRate(float rate) {
+        if (rate < 0) {
+            throw new IllegalArgumentException("Rate must not be negative: " + rate);
+        }
+        this.rate = rate;
+    }
+
+    /**
+     * Set the range of lifetimes of the particles.
+     *
+     * @param minLifetime the shortest lifetime, in seconds
+     * @param maxLifetime the longest lifetime, in seconds
+     * @throws IllegalArgumentException if the shortest lifetime is not
+     *                                  positive, or longer than the longest
+     */
+    public void setLifetime(float minLifetime, float maxLifetime) {
+        if (!(minLifetime > 0) || minLifetime > maxLifetime) {
+            throw new IllegalArgumentException("Invalid lifetime range: " + minLifetime + " to " + maxLifetime);
+        }
+        this.minLifetime = minLifetime;
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * Set the range of speeds of the particles.
+     *
+     * @param minSpeed the lowest speed, in units per second
+     * @param maxSpeed the highest speed, in units per second
+     */
+    public void setSpeed(float minSpeed, float maxSpeed) {
+        this.minSpeed = minSpeed;
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Set the directions the particles move in. By default, particles move in
+     * all directions.
+     *
+     * @param direction the direction in the middle of the range, in degrees
+     *                  counterclockwise from the x-axis
+     * @param spread    the width of the range, in degrees
+     */
+    public void setDirection(float direction, float spread) {
+        this.direction = direction;
+        this.spread = spread;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether the emitter spawns particles at its rate. Bursts are
+     * emitted either way.
+     *
+     * @param enabled false to stop the steady stream of particles
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Spawns a number of particles at once, in the next update of the system.
+     *
+     * @param particles the number of particles
+     */
+    public void burst(int particles) {
+        burst += particles;
+    }
+
+    /**
+     * Spawns the particles due in an update of a system.
+     *
+     * @param system the system to spawn the particles into
+     * @param delta  the time step, in seconds
+     */
+    void emit(ParticleSystem system, float delta) {
+        int particles = burst;
+        burst = 0;
+        if (enabled && rate > 0) {
+            pending += rate * delta;
+            int due = (int) pending;
+            pending -= due;
+            particles += due;
+        }
+
+        for (int i = 0; i < particles; i++) {
+            double angle = Math.toRadians(direction + spread * (nextFloat() - 0.5f));
+            float speed = minSpeed + (maxSpeed - minSpeed) * nextFloat();
+            float lifetime = minLifetime + (maxLifetime - minLifetime) * nextFloat();
+            if (!system.emit(x, y, speed * (float) Math.cos(angle), speed * (float) Math.sin(angle), lifetime)) {
+                // The system is full, so the rest would be dropped too
+                system.dropped += particles - i - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get a random number from a xorshift generator, which is much cheaper
+     * than {@link java.util.Random} when spawning many particles.
+     *
+     * @return a number from 0 (inclusive) to 1 (exclusive)
+     */
+    private float nextFloat() {
+        long s = seed;
+        s ^= s << 13;
+        s ^= s >>> 7;
+        s ^= s << 17;
+        seed = s;
+        return (s >>> 40) / (float) (1 << 24);
+    }
+
+}
@@ -0,0 +1,488 @@
+package com.saifkhichi.apis.gcore.particles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A large number of short-lived particles, e.g. sparks, smoke or rain.
+ * <p>
+ * A particle is not an object: the system stores the position, velocity and
+ * age of all particles in parallel arrays of primitives, allocated once for
+ * the capacity of the system. Particles are spawned by {@link ParticleEmitter
+ * emitters} or {@link #emit(float, float, float, float, float)}, move in a
+ * straight line under the {@link #setGravity(float, float) gravity} of the
+ * system, and die at the end of their lifetime. Their color and size change
+ * linearly over their life, from the start to the end values set on the
+ * system. Emitting, updating and removing particles never allocates.
+ * <p>
+ * Live particles are stored densely: a particle that dies is replaced by the
+ * last live particle, so an update is a single pass over the first
+ * {@link #getCount()} entries of the arrays, and the order of the particles
+ * changes as they die.
+ * <p>
+ * A system can update on several threads of a {@link ForkJoinPool} set with
+ * {@link #setPool(ForkJoinPool)}. The particles are then updated in batches
+ * of fixed size, which remove their dead particles on their own, and the
+ * batches are moved together at the end. Systems with fewer particles than
+ * the {@link #setParallelThreshold(int) parallel threshold} always update on
+ * the calling thread.
+ * <p>
+ * To draw the particles, {@link #fill(ParticleBuffer)} copies their position,
+ * size and color into a compact buffer that a {@link
+ * com.saifkhichi.apis.gcore.Drawable Drawable} can hand to its backend in
+ * one call.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see ParticleEmitter
+ * @see ParticleBuffer
+ */
+public class ParticleSystem {
+
+    /**
+     * Number of particles updated by one parallel task.
+     */
+    private static final int BATCH_SIZE = 16384;
+
+    /**
+     * Number of live particles a system needs before it updates in parallel
+     * by default.
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 4 * BATCH_SIZE;
+
+    private final int capacity;
+    private int count = 0;
+
+    /**
+     * State of the particles: position, velocity, the fraction of the
+     * lifetime that has passed, and the fraction that passes per second.
+     */
+    final float[] x, y;
+    final float[] vx, vy;
+    final float[] progress;
+    final float[] rate;
+
+    private float gravityX = 0.0f, gravityY = 0.0f;
+
+    private int startColor = 0xFFFFFFFF, endColor = 0x00FFFFFF;
+    private float startSize = 1.0f, endSize = 1.0f;
+
+    private final List<ParticleEmitter> emitters = new ArrayList<ParticleEmitter>();
+
+    /**
+     * Number of particles that could not be emitted because the system was
+     * full.
+     */
+    long dropped = 0;
+
+    private ForkJoinPool pool;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Number of live particles left in each batch by a parallel update.
+     */
+    private int[] batchEnd = new int[0];
+
+    /**
+     * Creates an empty particle system.
+     *
+     * @param capacity the largest number of live particles
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public ParticleSystem(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        progress = new float[capacity];
+        rate = new float[capacity];
+    }
+
+    /**
+     * Get the number of live particles.
+     *
+     * @return the number of particles
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the largest number of live particles.
+     *
+     * @return the capacity of the system
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of particles that could not be emitted because the
+     * system was full. If this keeps growing, the capacity is too small for
+     * the emitters of the system.
+     *
+     * @return the number of dropped particles
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Spawns a particle.
+     *
+     * @param x        the x coordinate of the particle
+     * @param y        the y coordinate of the particle
+     * @param vx       the velocity of the particle along the x-axis, in units
+     *                 per second
+     * @param vy       the velocity of the particle along the y-axis, in units
+     *                 per second
+     * @param lifetime how long the particle lives, in seconds
+     * @return true if the particle was spawned, false if the system is full
+     * @throws IllegalArgumentException if the lifetime is not positive
+     */
+    public boolean emit(float x, float y, float vx, float vy, float lifetime) {
+        if (!(lifetime > 0)) {
+            throw new IllegalArgumentException("Lifetime must be positive: " + lifetime);
+        }
+        if (count == capacity) {
+            dropped++;
+            return false;
+        }
+
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        progress[i] = 0.0f;
+        rate[i] = 1.0f / lifetime;
+        return true;
+    }
+
+    /**
+     * Kills all particles.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds an emitter, which spawns particles into this system on every
+     * update.
+     *
+     * @param emitter the emitter
+     */
+    public void addEmitter(ParticleEmitter emitter) {
+        if (emitter == null) {
+            throw new NullPointerException("emitter == null");
+        }
+        emitters.add(emitter);
+    }
+
+    /**
+     * Removes an emitter. Particles it has emitted live on.
+     *
+     * @param emitter the emitter
+     * @return true if the emitter was removed, false if it was not added
+     */
+    public boolean removeEmitter(ParticleEmitter emitter) {
+        return emitters.remove(emitter);
+    }
+
+    public float getGravityX() {
+        return gravityX;
+    }
+
+    public float getGravityY() {
+        return gravityY;
+    }
+
+    /**
+     * Set the acceleration of all particles. There is no gravity by default.
+     *
+     * @param gravityX the x component of the acceleration, in units per
+     *                 second squared
+     * @param gravityY the y component of the acceleration, in units per
+     *                 second squared
+     */
+    public void setGravity(float gravityX, float gravityY) {
+        this.gravityX = gravityX;
+        this.gravityY = gravityY;
+    }
+
+    public int getStartColor() {
+        return startColor;
+    }
+
+    public int getEndColor() {
+        return endColor;
+    }
+
+    /**
+     * Set the colors of particles at birth and at death. In between, each
+     * channel is blended linearly. By default, particles are white and fade
+     * out.
+     *
+     * @param startColor the color at birth, as 0xAARRGGBB
+     * @param endColor   the color at death, as 0xAARRGGBB
+     */
+    public void setColors(int startColor, int endColor) {
+        this.startColor = startColor;
+        this.endColor = endColor;
+    }
+
+    public float getStartSize() {
+        return startSize;
+    }
+
+    public float getEndSize() {
+        return endSize;
+    }
+
+    /**
+     * Set the sizes of particles at birth and at death. In between, the size
+     * is blended linearly.
+     *
+     * @param startSize the size at birth
+     * @param endSize   the size at death
+     */
+    public void setSizes(float startSize, float endSize) {
+        this.startSize = startSize;
+        this.endSize = endSize;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Set the pool used to update the particles on several threads.
+     * <p>
+     * The system does not shut the pool down. A pool can be shared with
+     * other systems and physics worlds, as long as they are not updated at
+     * the same time.
+     *
+     * @param pool the pool, or null to always update on the calling thread
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Set the number of live particles a system needs before it updates in
+     * parallel.
+     *
+     * @param particles the smallest number of particles to update in parallel
+     */
+    public void setParallelThreshold(int particles) {
+        this.parallelThreshold = particles;
+    }
+
+    /**
+     * Advances the system: the emitters spawn new particles, all particles
+     * move, and particles at the end of their lifetime are removed.
+     *
+     * @param delta the time step, in seconds
+     */
+    public void update(float delta) {
+        for (int i = 0; i < emitters.size(); i++) {
+            emitters.get(i).emit(this, delta);
+        }
+        if (count == 0) return;
+
+        if (pool != null && count >= parallelThreshold) {
+            int batches = (count + BATCH_SIZE - 1) / BATCH_SIZE;
+            if (batchEnd.length < batches) {
+                batchEnd = new int[capacity / BATCH_SIZE + 1];
+            }
+            pool.invoke(new UpdateTask(this, 0, batches, delta));
+            gather(batches);
+        } else {
+            count = update(0, count, delta);
+        }
+    }
+
+    /**
+     * Moves the particles in a range, and moves each particle that died to
+     * the end of the range.
+     *
+     * @param from  the index of the first particle
+     * @param to    the index after the last particle
+     * @param delta the time step, in seconds
+     * @return the index after the last live particle of the range
+     */
+    private int update(int from, int to, float delta) {
+        final float[] x = this.x, y = this.y, vx = this.vx, vy = this.vy;
+        final float[] progress = this.progress, rate = this.rate;
+        final float dvx = gravityX * delta, dvy = gravityY * delta;
+
+        int i = from;
+        while (i < to) {
+            float p = progress[i] + rate[i] * delta;
+            if (p >= 1.0f) {
+                // Take the last particle of the range, which has not been
+                // updated yet, and update it in the next iteration
+                to--;
+                x[i] = x[to];
+                y[i] = y[to];
+                vx[i] = vx[to];
+                vy[i] = vy[to];
+                progress[i] = progress[to];
+                rate[i] = rate[to];
+                continue;
+            }
+
+            float u = vx[i] + dvx, v = vy[i] + dvy;
+            vx[i] = u;
+            vy[i] = v;
+            x[i] += u * delta;
+            y[i] += v * delta;
+            progress[i] = p;
+            i++;
+        }
+        return to;
+    }
+
+    /**
+     * Moves the live particles of all batches of a parallel update to the
+     * front of the arrays.
+     *
+     * @param batches the number of batches
+     */
+    private void gather(int batches) {
+        int end = batchEnd[0];
+        for (int batch = 1; batch < batches; batch++) {
+            int from = batch * BATCH_SIZE, length = batchEnd[batch] - from;
+            if (length > 0 && from != end) {
+                System.arraycopy(x, from, x, end, length);
+                System.arraycopy(y, from, y, end, length);
+                System.arraycopy(vx, from, vx, end, length);
+                System.arraycopy(vy, from, vy, end, length);
+                System.arraycopy(progress, from, progress, end, length);
+                System.arraycopy(rate, from, rate, end, length);
+            }
+            end += length;
+        }
+        count = end;
+    }
+
+    /**
+     * Copies the position, size and color of all live particles into a
+     * buffer for drawing.
+     *
+     * @param buffer the buffer, which grows if it is too small
+     */
+    public void fill(ParticleBuffer buffer) {
+        buffer.ensureCapacity(count);
+        buffer.size = count;
+        if (pool != null && count >= parallelThreshold) {
+            pool.invoke(new FillTask(this, buffer, 0, count));
+        } else {
+            fill(buffer, 0, count);
+        }
+    }
+
+    /**
+     * Copies a range of particles into a buffer.
+     */
+    private void fill(ParticleBuffer buffer, int from, int to) {
+        final float[] x = this.x, y = this.y, progress = this.progress;
+        final float[] vertices = buffer.vertices;
+        final int[] colors = buffer.colors;
+        final float size = startSize, growth = endSize - startSize;
+
+        // Blend the colors in fixed point, with 8 bits for the progress, two
+        // channels at a time: red and blue, then alpha and green, each
+        // channel in 16 bits of an int
+        final int startRB = startColor & 0x00FF00FF, startAG = (startColor >>> 8) & 0x00FF00FF;
+        final int endRB = endColor & 0x00FF00FF, endAG = (endColor >>> 8) & 0x00FF00FF;
+
+        for (int i = from, k = ParticleBuffer.STRIDE * from; i < to; i++, k += ParticleBuffer.STRIDE) {
+            float p = progress[i];
+            int t = (int) (p * 256.0f), s = 256 - t;
+            vertices[k] = x[i];
+            vertices[k + 1] = y[i];
+            vertices[k + 2] = size + growth * p;
+            colors[i] = ((startRB * s + endRB * t) >>> 8) & 0x00FF00FF
+                    | (startAG * s + endAG * t) & 0xFF00FF00;
+        }
+    }
+
+    /**
+     * Updates a range of batches, splitting it in halves until a single
+     * batch is left.
+     */
+    private static final class UpdateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ParticleSystem system;
+        private final int from, to;
+        private final float delta;
+
+        UpdateTask(ParticleSystem system, int from, int to, float delta) {
+            this.system = system;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int start = from * BATCH_SIZE;
+                int end = Math.min(start + BATCH_SIZE, system.count);
+                system.batchEnd[from] = system.update(start, end, delta);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new UpdateTask(system, from, middle, delta),
+                    new UpdateTask(system, middle, to, delta));
+        }
+
+    }
+
+    /**
+     * Fills a range of a buffer, splitting it in halves until the ranges
+     * hold few enough particles.
+     */
+    private static final class FillTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ParticleSystem system;
+        private final ParticleBuffer buffer;
+        private final int from, to;
+
+        FillTask(ParticleSystem system, ParticleBuffer buffer, int from, int to) {
+            this.system = system;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                system.fill(buffer, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new FillTask(system, buffer, from, middle),
+                    new FillTask(system, buffer, middle, to));
+        }
+
+    }
+
+}
@@ -1,19 +1,36 @@
 package com.saifkhichi.apis.gcore.physics;
 
-public class BoundingBox {
+/**
+ * An axis-aligned rectangle.
+ * <p>
+ * A box can be reused with the {@code set} methods, e.g. to get the bounding
+ * box of an object on every frame with
+ * {@link Object2D#getBoundingBox(BoundingBox)} without allocating.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class BoundingBox {
 
-    public final float left;
-    public final float right;
-    public final float top;
-    public final float bottom;
+    public float left;
+    public float right;
+    public float top;
+    public float bottom;
     public final Point2D center;
 
+    /**
+     * Creates an empty box at the origin, to be filled with a {@code set}
+     * method.
+     */
+    public BoundingBox() {
+        this.center = new Point2D();
+    }
+
     public BoundingBox(Point2D center, int width, int height) {
         this.left = center.getX() - width / 2.0f;
         this.right = center.getX() + width / 2.0f;
         this.top = center.getY() + height / 2.0f;
         this.bottom = center.getY() - height / 2.0f;
-        this.center = center;
+        this.center = new Point2D(center.getX(), center.getY());
     }
 
     public BoundingBox(float left, float right, float top, float bottom) {
@@ -24,6 +41,38 @@ public class BoundingBox {
         this.center = new Point2D((left + right) / 2.0f, (top + bottom) / 2.0f);
     }
 
+    /**
+     * Set the box from its center and size. The center is copied.
+     *
+     * @param x      x coordinate of the center
+     * @param y      y coordinate of the center
+     * @param width  width of the box
+     * @param height height of the box
+     */
+    public void set(float x, float y, float width, float height) {
+        this.left = x - width / 2.0f;
+        this.right = x + width / 2.0f;
+        this.top = y + height / 2.0f;
+        this.bottom = y - height / 2.0f;
+        this.center.set(x, y);
+    }
+
+    /**
+     * Set the box from its edges.
+     *
+     * @param left   the left edge
+     * @param right  the right edge
+     * @param top    the top edge
+     * @param bottom the bottom edge
+     */
+    public void setEdges(float left, float right, float top, float bottom) {
+        this.left = left;
+        this.right = right;
+        this.top = top;
+        this.bottom = bottom;
+        this.center.set((left + right) / 2.0f, (top + bottom) / 2.0f);
+    }
+
     public boolean intersects(BoundingBox other) {
         return !(this.left > other.right || this.right < other.left || this.top < other.bottom || this.bottom > other.top);
     }
@@ -0,0 +1,455 @@
+package com.saifkhichi.apis.gcore.physics;
+
+import com.saifkhichi.apis.gcore.physics.collision.PairCallback;
+
+import java.util.Arrays;
+
+/**
+ * Finds the contacts between the bodies of a {@link PhysicsWorld} and pushes
+ * the bodies apart.
+ * <p>
+ * The pairs found by the broadphase of the world are tested against the shapes
+ * of the bodies, and every pair that touches becomes a contact with a normal
+ * (pointing from the first body to the second) and a penetration depth. The
+ * contacts are kept in parallel arrays and solved together:
+ * <ol>
+ * <li>Sequential impulses: every contact in turn changes the velocities of its
+ * bodies so that they stop approaching each other, possibly bouncing back, and
+ * friction slows their sliding along the contact. This is repeated a number of
+ * times, so that contacts sharing a body settle.</li>
+ * <li>Positional correction: bodies that still overlap are moved apart, in
+ * proportion to their inverse mass.</li>
+ * </ol>
+ * Bodies do not rotate, so contacts only change linear velocities. Bodies with
+ * zero mass are static and never moved by contacts.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+final strictfp class ContactSolver implements PairCallback {
+
+    /**
+     * Share of the remaining penetration removed by positional correction.
+     */
+    private static final float CORRECTION = 0.8f;
+
+    /**
+     * Penetration allowed without positional correction, which keeps resting
+     * contacts from jittering.
+     */
+    private static final float SLOP = 0.01f;
+
+    private final PhysicsWorld world;
+
+    int count = 0;
+
+    /**
+     * Indices of the two bodies of each contact.
+     */
+    int[] bodyA, bodyB;
+
+    /**
+     * Normal and penetration depth of each contact.
+     */
+    float[] normalX, normalY, penetration;
+
+    /**
+     * Combined restitution and friction of each contact.
+     */
+    float[] restitution, friction;
+
+    /**
+     * Effective mass of each contact, the inverse of the sum of the inverse
+     * masses of its bodies.
+     */
+    float[] effectiveMass;
+
+    /**
+     * Normal velocity each contact should reach, from restitution.
+     */
+    float[] targetVelocity;
+
+    /**
+     * Impulses applied so far along the normal and the tangent.
+     */
+    float[] normalImpulse, tangentImpulse;
+
+    /**
+     * Contacts in the order they are solved, grouped by island.
+     */
+    int[] order;
+
+    /**
+     * Island of each contact, and where each island starts in the order.
+     */
+    private int[] contactIsland;
+    int[] islandStart;
+    int islandCount = 0;
+
+    /**
+     * Union-find forest of the bodies, and the island of each tree root.
+     */
+    private int[] root, islandOfRoot;
+
+    ContactSolver(PhysicsWorld world) {
+        this.world = world;
+        allocate(64);
+    }
+
+    void clear() {
+        count = 0;
+    }
+
+    /**
+     * Tests a pair of bodies from the broadphase, and adds a contact if they
+     * touch.
+     */
+    @Override
+    public void onPair(Object2D a, Object2D b) {
+        RigidBody first = (RigidBody) a, second = (RigidBody) b;
+        if (first.world != world || second.world != world) return;
+
+        int i = first.index, j = second.index;
+        if (world.inverseMass[i] + world.inverseMass[j] == 0) return;
+
+        // Sleeping bodies are only woken up by bodies that are awake and move
+        boolean[] asleep = world.asleep;
+        if (asleep[i] || asleep[j]) {
+            if (asleep[i] && (asleep[j] || isStill(j))) return;
+            if (asleep[j] && isStill(i)) return;
+        }
+
+        if (count == bodyA.length) {
+            allocate(count * 2);
+        }
+
+        boolean collided;
+        Shape shapeA = first.getShape(), shapeB = second.getShape();
+        if (shapeA == Shape.BOX && shapeB == Shape.BOX) {
+            collided = boxBox(i, first, j, second);
+        } else if (shapeA == Shape.CIRCLE && shapeB == Shape.CIRCLE) {
+            collided = circleCircle(i, first, j, second);
+        } else if (shapeA == Shape.BOX) {
+            collided = boxCircle(i, first, j, second);
+        } else {
+            // Swap the bodies, so that the box comes first
+            collided = boxCircle(j, second, i, first);
+        }
+
+        if (collided) {
+            if (asleep[i]) world.wake(i);
+            if (asleep[j]) world.wake(j);
+
+            int c = count++;
+            restitution[c] = Math.max(first.getRestitution(), second.getRestitution());
+            friction[c] = (float) Math.sqrt(first.getFriction() * second.getFriction());
+        }
+    }
+
+    /**
+     * Tests whether an awake body neither moves nor can be moved.
+     */
+    private boolean isStill(int i) {
+        return world.inverseMass[i] == 0 && world.vx[i] == 0 && world.vy[i] == 0;
+    }
+
+    /**
+     * Solves all contacts on the calling thread.
+     *
+     * @param iterations how many times the velocities of all contacts are
+     *                   solved
+     */
+    void solve(int iterations) {
+        ensureOrderCapacity();
+        for (int c = 0; c < count; c++) {
+            order[c] = c;
+        }
+        solveRange(0, count, iterations);
+    }
+
+    /**
+     * Groups the contacts into islands: sets of contacts connected through
+     * the bodies they push. Static bodies do not connect contacts, because
+     * contacts never change them.
+     * <p>
+     * Contacts of different islands share no moving body, so islands can be
+     * solved independently, in any order or at the same time, with the same
+     * result. Within an island, contacts keep the order they were found in.
+     */
+    void buildIslands() {
+        ensureOrderCapacity();
+        final float[] inverseMass = world.inverseMass;
+        if (root == null || root.length < world.count) {
+            root = new int[world.bodies.length];
+            islandOfRoot = new int[world.bodies.length];
+            Arrays.fill(islandOfRoot, -1);
+        }
+
+        // Join the moving bodies of every contact
+        for (int c = 0; c < count; c++) {
+            root[bodyA[c]] = bodyA[c];
+            root[bodyB[c]] = bodyB[c];
+        }
+        for (int c = 0; c < count; c++) {
+            int a = bodyA[c], b = bodyB[c];
+            if (inverseMass[a] != 0 && inverseMass[b] != 0) {
+                int rootA = find(a), rootB = find(b);
+                if (rootA != rootB) root[rootB] = rootA;
+            }
+        }
+
+        // Number the islands in the order their first contact was found
+        islandCount = 0;
+        for (int c = 0; c < count; c++) {
+            int r = find(inverseMass[bodyA[c]] != 0 ? bodyA[c] : bodyB[c]);
+            if (islandOfRoot[r] < 0) {
+                islandOfRoot[r] = islandCount;
+                islandStart[islandCount++] = 0;
+            }
+            contactIsland[c] = islandOfRoot[r];
+            islandStart[islandOfRoot[r]]++;
+        }
+
+        // Sort the contacts by island, keeping their order within islands
+        int offset = 0;
+        for (int i = 0; i < islandCount; i++) {
+            int size = islandStart[i];
+            islandStart[i] = offset;
+            offset += size;
+        }
+        islandStart[islandCount] = offset;
+        for (int c = 0; c < count; c++) {
+            order[islandStart[contactIsland[c]]++] = c;
+        }
+        for (int i = islandCount; i > 0; i--) {
+            islandStart[i] = islandStart[i - 1];
+        }
+        islandStart[0] = 0;
+
+        for (int c = 0; c < count; c++) {
+            islandOfRoot[find(bodyA[c])] = -1;
+            islandOfRoot[find(bodyB[c])] = -1;
+        }
+    }
+
+    /**
+     * Solves a range of islands. Islands must have been built with
+     * {@link #buildIslands()}.
+     *
+     * @param from       index of the first island
+     * @param to         index after the last island
+     * @param iterations how many times the velocities of the contacts are
+     *                   solved
+     */
+    void solveIslands(int from, int to, int iterations) {
+        for (int i = from; i < to; i++) {
+            solveRange(islandStart[i], islandStart[i + 1], iterations);
+        }
+    }
+
+    /**
+     * Solves the contacts listed in a range of the order.
+     */
+    private void solveRange(int from, int to, int iterations) {
+        final float[] vx = world.vx, vy = world.vy;
+        final float[] inverseMass = world.inverseMass;
+        final int[] order = this.order;
+
+        // Prepare the contacts
+        for (int k = from; k < to; k++) {
+            int c = order[k];
+            int a = bodyA[c], b = bodyB[c];
+            effectiveMass[c] = 1.0f / (inverseMass[a] + inverseMass[b]);
+
+            float approach = (vx[b] - vx[a]) * normalX[c] + (vy[b] - vy[a]) * normalY[c];
+            targetVelocity[c] = approach < 0 ? -restitution[c] * approach : 0.0f;
+            normalImpulse[c] = 0.0f;
+            tangentImpulse[c] = 0.0f;
+        }
+
+        // Sequential impulses
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int k = from; k < to; k++) {
+                int c = order[k];
+                int a = bodyA[c], b = bodyB[c];
+                float nx = normalX[c], ny = normalY[c];
+                float inverseMassA = inverseMass[a], inverseMassB = inverseMass[b];
+
+                // Normal impulse, which may only push the bodies apart
+                float rvx = vx[b] - vx[a], rvy = vy[b] - vy[a];
+                float lambda = effectiveMass[c] * (targetVelocity[c] - (rvx * nx + rvy * ny));
+                float total = Math.max(normalImpulse[c] + lambda, 0.0f);
+                lambda = total - normalImpulse[c];
+                normalImpulse[c] = total;
+
+                // Friction impulse along the tangent, limited by the normal impulse
+                float tx = -ny, ty = nx;
+                rvx += lambda * nx * (inverseMassA + inverseMassB);
+                rvy += lambda * ny * (inverseMassA + inverseMassB);
+                float tangentLambda = -effectiveMass[c] * (rvx * tx + rvy * ty);
+                float limit = friction[c] * normalImpulse[c];
+                total = Math.max(-limit, Math.min(tangentImpulse[c] + tangentLambda, limit));
+                tangentLambda = total - tangentImpulse[c];
+                tangentImpulse[c] = total;
+
+                // Static bodies are shared between islands, and never written
+                float impulseX = lambda * nx + tangentLambda * tx;
+                float impulseY = lambda * ny + tangentLambda * ty;
+                if (inverseMassA != 0) {
+                    vx[a] -= impulseX * inverseMassA;
+                    vy[a] -= impulseY * inverseMassA;
+                }
+                if (inverseMassB != 0) {
+                    vx[b] += impulseX * inverseMassB;
+                    vy[b] += impulseY * inverseMassB;
+                }
+            }
+        }
+
+        // Positional correction
+        final float[] x = world.x, y = world.y;
+        for (int k = from; k < to; k++) {
+            int c = order[k];
+            float depth = penetration[c] - SLOP;
+            if (depth <= 0) continue;
+
+            int a = bodyA[c], b = bodyB[c];
+            float correction = depth * CORRECTION * effectiveMass[c];
+            if (inverseMass[a] != 0) {
+                x[a] -= normalX[c] * correction * inverseMass[a];
+                y[a] -= normalY[c] * correction * inverseMass[a];
+            }
+            if (inverseMass[b] != 0) {
+                x[b] += normalX[c] * correction * inverseMass[b];
+                y[b] += normalY[c] * correction * inverseMass[b];
+            }
+        }
+    }
+
+    /**
+     * Finds the representative of the island of a body, halving the paths
+     * on the way.
+     */
+    private int find(int body) {
+        final int[] root = this.root;
+        while (root[body] != body) {
+            root[body] = root[root[body]];
+            body = root[body];
+        }
+        return body;
+    }
+
+    private boolean boxBox(int a, RigidBody first, int b, RigidBody second) {
+        float dx = world.x[b] - world.x[a];
+        float dy = world.y[b] - world.y[a];
+        float overlapX = (first.getWidth() + second.getWidth()) / 2.0f - Math.abs(dx);
+        float overlapY = (first.getHeight() + second.getHeight()) / 2.0f - Math.abs(dy);
+        if (overlapX <= 0 || overlapY <= 0) return false;
+
+        // Push the bodies apart along the axis where they overlap the least
+        if (overlapX < overlapY) {
+            add(a, b, dx < 0 ? -1.0f : 1.0f, 0.0f, overlapX);
+        } else {
+            add(a, b, 0.0f, dy < 0 ? -1.0f : 1.0f, overlapY);
+        }
+        return true;
+    }
+
+    private boolean circleCircle(int a, RigidBody first, int b, RigidBody second) {
+        float dx = world.x[b] - world.x[a];
+        float dy = world.y[b] - world.y[a];
+        float radius = first.getRadius() + second.getRadius();
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared >= radius * radius) return false;
+
+        float distance = (float) Math.sqrt(distanceSquared);
+        if (distance == 0) {
+            add(a, b, 0.0f, 1.0f, radius);
+        } else {
+            add(a, b, dx / distance, dy / distance, radius - distance);
+        }
+        return true;
+    }
+
+    private boolean boxCircle(int a, RigidBody box, int b, RigidBody circle) {
+        float halfWidth = box.getWidth() / 2.0f, halfHeight = box.getHeight() / 2.0f;
+        float radius = circle.getRadius();
+
+        // Center of the circle relative to the box
+        float dx = world.x[b] - world.x[a];
+        float dy = world.y[b] - world.y[a];
+
+        // Closest point of the box to the center of the circle
+        float closestX = Math.max(-halfWidth, Math.min(dx, halfWidth));
+        float closestY = Math.max(-halfHeight, Math.min(dy, halfHeight));
+
+        if (closestX == dx && closestY == dy) {
+            // The center is inside the box: push it out through the nearest side
+            float exitX = halfWidth - Math.abs(dx);
+            float exitY = halfHeight - Math.abs(dy);
+            if (exitX < exitY) {
+                add(a, b, dx < 0 ? -1.0f : 1.0f, 0.0f, exitX + radius);
+            } else {
+                add(a, b, 0.0f, dy < 0 ? -1.0f : 1.0f, exitY + radius);
+            }
+            return true;
+        }
+
+        float ox = dx - closestX, oy = dy - closestY;
+        float distanceSquared = ox * ox + oy * oy;
+        if (distanceSquared >= radius * radius) return false;
+
+        float distance = (float) Math.sqrt(distanceSquared);
+        add(a, b, ox / distance, oy / distance, radius - distance);
+        return true;
+    }
+
+    /**
+     * Stores the geometry of a new contact. It is counted by the caller.
+     */
+    private void add(int a, int b, float nx, float ny, float depth) {
+        int c = count;
+        bodyA[c] = a;
+        bodyB[c] = b;
+        normalX[c] = nx;
+        normalY[c] = ny;
+        penetration[c] = depth;
+    }
+
+    private void ensureOrderCapacity() {
+        if (order == null || order.length < count) {
+            int capacity = bodyA.length;
+            order = new int[capacity];
+            contactIsland = new int[capacity];
+            islandStart = new int[capacity + 1];
+        }
+    }
+
+    private void allocate(int capacity) {
+        if (bodyA == null) {
+            bodyA = new int[capacity];
+            bodyB = new int[capacity];
+            normalX = new float[capacity];
+            normalY = new float[capacity];
+            penetration = new float[capacity];
+            restitution = new float[capacity];
+            friction = new float[capacity];
+            effectiveMass = new float[capacity];
+            targetVelocity = new float[capacity];
+            normalImpulse = new float[capacity];
+            tangentImpulse = new float[capacity];
+        } else {
+            bodyA = Arrays.copyOf(bodyA, capacity);
+            bodyB = Arrays.copyOf(bodyB, capacity);
+            normalX = Arrays.copyOf(normalX, capacity);
+            normalY = Arrays.copyOf(normalY, capacity);
+            penetration = Arrays.copyOf(penetration, capacity);
+            restitution = Arrays.copyOf(restitution, capacity);
+            friction = Arrays.copyOf(friction, capacity);
+            effectiveMass = Arrays.copyOf(effectiveMass, capacity);
+            targetVelocity = Arrays.copyOf(targetVelocity, capacity);
+            normalImpulse = Arrays.copyOf(normalImpulse, capacity);
+            tangentImpulse = Arrays.copyOf(tangentImpulse, capacity);
+        }
+    }
+
+}
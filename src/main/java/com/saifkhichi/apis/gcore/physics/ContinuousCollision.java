@@ -0,0 +1,204 @@
+package com.saifkhichi.apis.gcore.physics;
+
+import com.saifkhichi.apis.gcore.physics.collision.Broadphase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stops bullets of a {@link PhysicsWorld} at the first body in their way.
+ * <p>
+ * A body that moves further in one step than the thickness of a wall can pass
+ * through the wall without ever overlapping it, so no contact is found. For
+ * bodies marked as {@link RigidBody#setBullet(boolean) bullets}, the box swept
+ * by the body during the step is tested against the bodies around it instead.
+ * The time of impact with each body is found by casting the center of the
+ * bullet against the box of the body, enlarged by the size of the bullet. The
+ * bullet is moved back to the earliest impact, and an impulse along the normal
+ * of the impact stops it (or bounces it back, with restitution).
+ * <p>
+ * The other bodies are taken to be at their positions at the end of the step,
+ * so bullets are stopped reliably by static and slow bodies. Both shapes are
+ * swept as their bounding boxes.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+final strictfp class ContinuousCollision {
+
+    private final PhysicsWorld world;
+
+    /**
+     * Position of each bullet at the start of the step.
+     */
+    private float[] startX = new float[0], startY = new float[0];
+
+    private final List<Object2D> candidates = new ArrayList<Object2D>();
+
+    /**
+     * Normal of the last impact found, pointing towards the bullet.
+     */
+    private float normalX, normalY;
+
+    ContinuousCollision(PhysicsWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Remembers where the awake bullets are before the world is integrated.
+     *
+     * @return true if there are awake bullets
+     */
+    boolean begin() {
+        final PhysicsWorld world = this.world;
+        if (startX.length < world.count) {
+            startX = Arrays.copyOf(startX, world.bodies.length);
+            startY = Arrays.copyOf(startY, world.bodies.length);
+        }
+
+        boolean any = false;
+        for (int i = 0; i < world.count; i++) {
+            if (world.bullet[i] && !world.asleep[i]) {
+                startX[i] = world.x[i];
+                startY[i] = world.y[i];
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    /**
+     * Moves every bullet back to its earliest impact during the step.
+     *
+     * @param broadphase the broadphase to find the bodies near a bullet with,
+     *                   updated after the bodies were integrated
+     */
+    void sweep(Broadphase broadphase) {
+        final PhysicsWorld world = this.world;
+
+        for (int i = 0; i < world.count; i++) {
+            if (!world.bullet[i] || world.asleep[i]) continue;
+
+            float fromX = startX[i], fromY = startY[i];
+            float dx = world.x[i] - fromX, dy = world.y[i] - fromY;
+            if (dx == 0 && dy == 0) continue;
+
+            RigidBody bullet = world.bodies[i];
+            float halfWidth = bullet.getWidth() / 2.0f, halfHeight = bullet.getHeight() / 2.0f;
+
+            // Bodies around the box swept by the bullet
+            candidates.clear();
+            broadphase.queryRect(
+                    Math.min(fromX, world.x[i]) - halfWidth, Math.min(fromY, world.y[i]) - halfHeight,
+                    Math.max(fromX, world.x[i]) + halfWidth, Math.max(fromY, world.y[i]) + halfHeight,
+                    candidates);
+
+            float impact = 1.0f;
+            int hit = -1;
+            float hitNormalX = 0.0f, hitNormalY = 0.0f;
+            for (int k = 0; k < candidates.size(); k++) {
+                RigidBody other = (RigidBody) candidates.get(k);
+                if (other == bullet || other.world != world) continue;
+
+                // A bullet that touches a body from the start, e.g. resting on
+                // a floor or lying against a wall, is left to the contact
+                // solver, so that it can still slide along the body
+                float time = timeOfImpact(bullet, other.index, fromX, fromY, dx, dy);
+                if (time > 0 && time < impact) {
+                    impact = time;
+                    hit = other.index;
+                    hitNormalX = normalX;
+                    hitNormalY = normalY;
+                }
+            }
+            candidates.clear();
+            if (hit < 0) continue;
+
+            world.x[i] = fromX + dx * impact;
+            world.y[i] = fromY + dy * impact;
+            respond(i, hit, hitNormalX, hitNormalY);
+        }
+    }
+
+    /**
+     * Finds when a bullet moving from a point hits the box of another body.
+     *
+     * @return the fraction of the movement at which the bullet touches the
+     * body, 0 if it touches the body from the start, or 1 if it does not hit
+     * the body, or overlaps it from the start
+     */
+    private float timeOfImpact(RigidBody bullet, int other, float fromX, float fromY, float dx, float dy) {
+        RigidBody body = world.bodies[other];
+        float halfWidth = (bullet.getWidth() + body.getWidth()) / 2.0f;
+        float halfHeight = (bullet.getHeight() + body.getHeight()) / 2.0f;
+        float left = world.x[other] - halfWidth, right = world.x[other] + halfWidth;
+        float bottom = world.y[other] - halfHeight, top = world.y[other] + halfHeight;
+
+        if (fromX > left && fromX < right && fromY > bottom && fromY < top) {
+            // Already overlapping, which the contact solver takes care of
+            return 1.0f;
+        }
+
+        // Start before the movement, so that the axis of a bullet that is
+        // touching the body at the start is recorded as well
+        float near = Float.NEGATIVE_INFINITY, far = 1.0f;
+        float nx = 0.0f, ny = 0.0f;
+
+        if (dx == 0) {
+            if (fromX <= left || fromX >= right) return 1.0f;
+        } else {
+            float t1 = (left - fromX) / dx, t2 = (right - fromX) / dx;
+            float enter = Math.min(t1, t2);
+            if (enter > near) {
+                near = enter;
+                nx = dx > 0 ? -1.0f : 1.0f;
+                ny = 0.0f;
+            }
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (dy == 0) {
+            if (fromY <= bottom || fromY >= top) return 1.0f;
+        } else {
+            float t1 = (bottom - fromY) / dy, t2 = (top - fromY) / dy;
+            float enter = Math.min(t1, t2);
+            if (enter > near) {
+                near = enter;
+                nx = 0.0f;
+                ny = dy > 0 ? -1.0f : 1.0f;
+            }
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        // No overlap during the movement, or only while moving away
+        if (near >= far || near >= 1.0f || far <= 0) return 1.0f;
+        normalX = nx;
+        normalY = ny;
+        return Math.max(near, 0.0f);
+    }
+
+    /**
+     * Applies the impulse of an impact, so that the bullet no longer moves
+     * into the body it hit.
+     */
+    private void respond(int bullet, int other, float nx, float ny) {
+        final PhysicsWorld world = this.world;
+        float inverseMassA = world.inverseMass[bullet], inverseMassB = world.inverseMass[other];
+        if (inverseMassA + inverseMassB == 0) return;
+
+        float approach = (world.vx[bullet] - world.vx[other]) * nx + (world.vy[bullet] - world.vy[other]) * ny;
+        if (approach >= 0) return;
+
+        float restitution = Math.max(world.bodies[bullet].getRestitution(), world.bodies[other].getRestitution());
+        float impulse = -(1.0f + restitution) * approach / (inverseMassA + inverseMassB);
+
+        world.vx[bullet] += impulse * nx * inverseMassA;
+        world.vy[bullet] += impulse * ny * inverseMassA;
+        if (inverseMassB != 0) {
+            world.vx[other] -= impulse * nx * inverseMassB;
+            world.vy[other] -= impulse * ny * inverseMassB;
+            world.wake(other);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * Keeps two bodies at a fixed distance, like a rigid rod between their
+ * centers, or pulls them towards that distance like a spring.
+ * <p>
+ * By default the joint is rigid. With {@link #setSpring(float, float)} it
+ * becomes a soft constraint that oscillates at the given frequency. Unlike a
+ * {@link com.saifkhichi.apis.gcore.physics.force.Spring} force, a soft joint
+ * is solved implicitly, so it stays stable however stiff it is and however
+ * large the time step.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class DistanceJoint extends Joint {
+
+    private float length;
+    private float frequency = 0.0f;
+    private float dampingRatio = 0.0f;
+
+    /**
+     * Softness of the constraint, and the velocity that pulls the bodies
+     * back to the length, in the current step.
+     */
+    private float gamma, bias;
+
+    /**
+     * Joins two bodies at their current distance.
+     *
+     * @param bodyA the first body
+     * @param bodyB the second body
+     */
+    public DistanceJoint(RigidBody bodyA, RigidBody bodyB) {
+        this(bodyA, bodyB, (float) Point2D.distance(bodyA.getX(), bodyA.getY(), bodyB.getX(), bodyB.getY()));
+    }
+
+    /**
+     * Joins two bodies at the given distance.
+     *
+     * @param bodyA  the first body
+     * @param bodyB  the second body
+     * @param length the distance between the centers of the bodies
+     */
+    public DistanceJoint(RigidBody bodyA, RigidBody bodyB, float length) {
+        super(bodyA, bodyB);
+        setLength(length);
+    }
+
+    public float getLength() {
+        return length;
+    }
+
+    /**
+     * Set the distance the joint keeps its bodies at.
+     *
+     * @param length the distance between the centers of the bodies
+     * @throws IllegalArgumentException if the length is negative
+     */
+    public void setLength(float length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative: " + length);
+        }
+        this.length = length;
+    }
+
+    public float getFrequency() {
+        return frequency;
+    }
+
+    public float getDampingRatio() {
+        return dampingRatio;
+    }
+
+    /**
+     * Makes the joint a spring.
+     *
+     * @param frequency    how many times per second the spring oscillates, or
+     *                     0 for a rigid joint
+     * @param dampingRatio 0 for no damping, 1 to come to rest without
+     *                     overshooting
+     */
+    public void setSpring(float frequency, float dampingRatio) {
+        if (frequency < 0) {
+            throw new IllegalArgumentException("Frequency must not be negative: " + frequency);
+        }
+        this.frequency = frequency;
+        this.dampingRatio = dampingRatio;
+    }
+
+    @Override
+    boolean begin(PhysicsWorld world, float delta) {
+        if (frequency == 0) {
+            gamma = 0.0f;
+            bias = 0.0f;
+            return true;
+        }
+
+        // Soft constraint from the stiffness and damping of a spring on the
+        // effective mass
+        float mass = effectiveMass;
+        float omega = 2.0f * (float) Math.PI * frequency;
+        float damping = 2.0f * mass * dampingRatio * omega;
+        float stiffness = mass * omega * omega;
+
+        gamma = delta * (damping + delta * stiffness);
+        gamma = gamma != 0 ? 1.0f / gamma : 0.0f;
+        bias = (distance - length) * delta * stiffness * gamma;
+        effectiveMass = 1.0f / (1.0f / mass + gamma);
+        return true;
+    }
+
+    @Override
+    void solveVelocity(PhysicsWorld world) {
+        float lambda = -effectiveMass * (approach(world) + bias + gamma * impulse);
+        impulse += lambda;
+        apply(world, lambda);
+    }
+
+    @Override
+    void solvePosition(PhysicsWorld world) {
+        if (frequency == 0) {
+            project(world, length, length);
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * Approximations of the trigonometric functions used by the vector classes,
+ * trading a little accuracy for speed.
+ * <p>
+ * Angles are in degrees, like everywhere else in the physics package. The
+ * error bounds below hold for finite arguments, and for angles within a few
+ * thousand degrees of zero; beyond that, the float argument itself is less
+ * precise than the approximation.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see MathMode#FAST
+ */
+public final strictfp class FastMath {
+
+    /**
+     * Number of intervals the sine table splits a full turn into.
+     */
+    private static final int SIN_BITS = 12;
+    private static final int SIN_SIZE = 1 << SIN_BITS;
+    private static final int SIN_MASK = SIN_SIZE - 1;
+
+    /**
+     * Table intervals per degree.
+     */
+    private static final float SIN_SCALE = SIN_SIZE / 360.0f;
+
+    /**
+     * The sine at the start of each interval, plus one to interpolate the last.
+     */
+    private static final float[] SIN = new float[SIN_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= SIN_SIZE; i++) {
+            SIN[i] = (float) StrictMath.sin(i * 2.0 * StrictMath.PI / SIN_SIZE);
+        }
+    }
+
+    private static final float DEGREES_PER_RADIAN = (float) (180.0 / Math.PI);
+
+    private FastMath() {
+    }
+
+    /**
+     * Approximates the sine of an angle by interpolating in a table of 4096
+     * entries. The absolute error is below 1e-6.
+     *
+     * @param degrees the angle, in degrees
+     * @return the sine of the angle
+     */
+    public static float sinDeg(float degrees) {
+        float t = degrees * SIN_SCALE;
+        int i = (int) t;
+        if (t < i) i--;
+        float fraction = t - i;
+        i &= SIN_MASK;
+        return SIN[i] + (SIN[i + 1] - SIN[i]) * fraction;
+    }
+
+    /**
+     * Approximates the cosine of an angle. The absolute error is below 1e-6.
+     *
+     * @param degrees the angle, in degrees
+     * @return the cosine of the angle
+     * @see #sinDeg(float)
+     */
+    public static float cosDeg(float degrees) {
+        return sinDeg(degrees + 90.0f);
+    }
+
+    /**
+     * Approximates the direction of a vector with a polynomial. The error is
+     * below 0.001 degrees.
+     *
+     * @param y the y coordinate of the vector
+     * @param x the x coordinate of the vector
+     * @return the direction of the vector, in degrees from -180 to 180, like
+     * {@code Math.toDegrees(Math.atan2(y, x))}
+     */
+    public static float atan2Deg(float y, float x) {
+        float absX = Math.abs(x), absY = Math.abs(y);
+        if (absX == 0 && absY == 0) {
+            // Leave the signs of zero to the exact function
+            return (float) Math.toDegrees(Math.atan2(y, x));
+        }
+
+        float angle = absY > absX
+                ? 90.0f - atan(absX / absY) * DEGREES_PER_RADIAN
+                : atan(absY / absX) * DEGREES_PER_RADIAN;
+        if (x < 0) angle = 180.0f - angle;
+        return y < 0 ? -angle : angle;
+    }
+
+    /**
+     * Approximates the inverse square root of a number, with the well-known
+     * bit trick and two steps of Newton's method. The relative error is below
+     * 5e-6.
+     * <p>
+     * Note that on current JVMs, {@code Math.sqrt} is a single instruction and
+     * usually faster than this; it is meant for platforms without one.
+     *
+     * @param value a positive number
+     * @return approximately {@code 1 / Math.sqrt(value)}
+     */
+    public static float invSqrt(float value) {
+        float half = 0.5f * value;
+        float y = Float.intBitsToFloat(0x5f3759df - (Float.floatToRawIntBits(value) >> 1));
+        y = y * (1.5f - half * y * y);
+        y = y * (1.5f - half * y * y);
+        return y;
+    }
+
+    /**
+     * Approximates the arctangent of a number from 0 to 1, in radians
+     * (Abramowitz and Stegun 4.4.47, error below 1e-5).
+     */
+    private static float atan(float z) {
+        float z2 = z * z;
+        return z * (0.9998660f + z2 * (-0.3302995f + z2 * (0.1801410f + z2 * (-0.0851330f + z2 * 0.0208351f))));
+    }
+
+}
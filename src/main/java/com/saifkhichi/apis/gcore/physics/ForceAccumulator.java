@@ -0,0 +1,125 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * The forces on the bodies of a {@link PhysicsWorld} during a sub-step, as
+ * seen by {@link ForceGenerator force generators}.
+ * <p>
+ * Bodies are identified by their index in the world, from 0 to
+ * {@link #size()}. Besides adding forces, the accumulator gives read access
+ * to the state of the bodies the forces usually depend on. All methods read
+ * and write the arrays of the world directly.
+ * <p>
+ * Generators should skip bodies that are not {@link #isActive(int) active}:
+ * static bodies do not move, and forces on sleeping bodies do not wake them
+ * up. This keeps e.g. a wind zone from waking every body it covers.
+ * Generators that connect two bodies, like springs, should instead
+ * {@link #wake(int) wake} a sleeping body that the other body pulls on, and
+ * {@link #link(int, int) link} the bodies so that they fall asleep together.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public final strictfp class ForceAccumulator {
+
+    private final PhysicsWorld world;
+
+    ForceAccumulator(PhysicsWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Get the number of bodies.
+     *
+     * @return the number of bodies of the world
+     */
+    public int size() {
+        return world.count;
+    }
+
+    /**
+     * Get the index of a body.
+     *
+     * @param body the body
+     * @return the index of the body, or -1 if it is not part of the world
+     */
+    public int indexOf(RigidBody body) {
+        return body.world == world ? body.index : -1;
+    }
+
+    /**
+     * Tests whether forces on a body have any effect.
+     *
+     * @param i the index of the body
+     * @return true if the body is neither static nor asleep
+     */
+    public boolean isActive(int i) {
+        return world.inverseMass[i] != 0 && !world.asleep[i];
+    }
+
+    public float getX(int i) {
+        return world.x[i];
+    }
+
+    public float getY(int i) {
+        return world.y[i];
+    }
+
+    public float getVelocityX(int i) {
+        return world.vx[i];
+    }
+
+    public float getVelocityY(int i) {
+        return world.vy[i];
+    }
+
+    public float getMass(int i) {
+        return world.mass[i];
+    }
+
+    /**
+     * Adds a force to a body.
+     *
+     * @param i  the index of the body
+     * @param fx the x component of the force
+     * @param fy the y component of the force
+     */
+    public void add(int i, float fx, float fy) {
+        world.netForceX[i] += fx;
+        world.netForceY[i] += fy;
+    }
+
+    /**
+     * Adds the force that accelerates a body at the given rate, whatever its
+     * mass, like gravity does.
+     *
+     * @param i  the index of the body
+     * @param ax the x component of the acceleration
+     * @param ay the y component of the acceleration
+     */
+    public void addAcceleration(int i, float ax, float ay) {
+        float mass = world.mass[i];
+        world.netForceX[i] += ax * mass;
+        world.netForceY[i] += ay * mass;
+    }
+
+    /**
+     * Wakes a body up, so that it feels the forces added to it in this
+     * sub-step. Does nothing if the body is static or awake.
+     *
+     * @param i the index of the body
+     */
+    public void wake(int i) {
+        if (world.asleep[i]) world.wake(i);
+    }
+
+    /**
+     * Links two bodies that act on each other in this sub-step, so that they
+     * only fall asleep together, like bodies in contact.
+     *
+     * @param a the index of the first body
+     * @param b the index of the second body
+     */
+    public void link(int a, int b) {
+        world.link(a, b);
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * Computes forces on the bodies of a {@link PhysicsWorld}, e.g. a gravity
+ * field, drag, wind or a spring.
+ * <p>
+ * A generator is evaluated once before every sub-step of the world, and adds
+ * its forces for all bodies at once to a {@link ForceAccumulator}. Forces do
+ * not carry over from one sub-step to the next, so a generator adds them
+ * again every time. Implementations should loop over the bodies of the
+ * accumulator directly; its methods are small and final, so such a loop
+ * compiles to plain array accesses.
+ * <p>
+ * Generators in {@link com.saifkhichi.apis.gcore.physics.force} cover the
+ * common cases.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see PhysicsWorld#addForceGenerator(ForceGenerator)
+ */
+public interface ForceGenerator {
+
+    /**
+     * Adds the forces of this generator.
+     *
+     * @param forces the forces on the bodies of the world
+     */
+    void apply(ForceAccumulator forces);
+
+}
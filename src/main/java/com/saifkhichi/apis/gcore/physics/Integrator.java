@@ -0,0 +1,103 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * Methods a {@link PhysicsWorld} can advance its bodies with.
+ * <p>
+ * All integrators take the acceleration of a body (its own, plus
+ * {@link Physics#GRAVITY} if it is gravitational, plus the forces on it
+ * divided by its mass) to be constant during a step, and the time step in
+ * seconds.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see PhysicsWorld#setIntegrator(Integrator)
+ */
+public strictfp enum Integrator {
+
+    /**
+     * Semi-implicit (symplectic) Euler: the velocity is updated first, and
+     * the position is then moved by the new velocity.
+     * <p>
+     * This is what {@link Physics#update(RigidBody, float)} has always done.
+     * It is cheap and does not gain energy, so orbits and springs stay
+     * bounded, but positions are off by half the acceleration times the
+     * square of the time step, so falling bodies land a little early at low
+     * step rates.
+     */
+    SEMI_IMPLICIT_EULER {
+        @Override
+        void integrate(PhysicsWorld world, int from, int to, float delta) {
+            final float[] x = world.x, y = world.y;
+            final float[] vx = world.vx, vy = world.vy;
+            final float[] ax = world.ax, ay = world.ay;
+            final float[] fx = world.netForceX, fy = world.netForceY;
+            final float[] inverseMass = world.inverseMass;
+            final boolean[] gravitational = world.gravitational;
+            final boolean[] asleep = world.asleep;
+            final float gravity = Physics.GRAVITY * delta;
+
+            for (int i = from; i < to; i++) {
+                if (asleep[i]) continue;
+
+                float velocityX = vx[i] + (ax[i] + fx[i] * inverseMass[i]) * delta;
+                float velocityY = vy[i] + (ay[i] + fy[i] * inverseMass[i]) * delta;
+                if (gravitational[i]) {
+                    velocityY += gravity;
+                }
+
+                vx[i] = velocityX;
+                vy[i] = velocityY;
+                x[i] += velocityX * delta;
+                y[i] += velocityY * delta;
+            }
+        }
+    },
+
+    /**
+     * Velocity Verlet: the position is moved by the velocity and half the
+     * acceleration times the time step, and the velocity is then updated.
+     * <p>
+     * Since the acceleration is constant during a step, bodies follow their
+     * exact trajectories whatever the step rate, e.g. a body thrown at 30 Hz
+     * lands at the same place as one thrown at 240 Hz. This costs a few more
+     * multiplications per body than {@link #SEMI_IMPLICIT_EULER}.
+     */
+    VELOCITY_VERLET {
+        @Override
+        void integrate(PhysicsWorld world, int from, int to, float delta) {
+            final float[] x = world.x, y = world.y;
+            final float[] vx = world.vx, vy = world.vy;
+            final float[] ax = world.ax, ay = world.ay;
+            final float[] fx = world.netForceX, fy = world.netForceY;
+            final float[] inverseMass = world.inverseMass;
+            final boolean[] gravitational = world.gravitational;
+            final boolean[] asleep = world.asleep;
+            final float half = 0.5f * delta;
+
+            for (int i = from; i < to; i++) {
+                if (asleep[i]) continue;
+
+                float accelerationX = ax[i] + fx[i] * inverseMass[i];
+                float accelerationY = ay[i] + fy[i] * inverseMass[i];
+                if (gravitational[i]) {
+                    accelerationY += Physics.GRAVITY;
+                }
+
+                x[i] += (vx[i] + accelerationX * half) * delta;
+                y[i] += (vy[i] + accelerationY * half) * delta;
+                vx[i] += accelerationX * delta;
+                vy[i] += accelerationY * delta;
+            }
+        }
+    };
+
+    /**
+     * Advances a range of the bodies of a world.
+     *
+     * @param world the world
+     * @param from  index of the first body
+     * @param to    index after the last body
+     * @param delta the time step, in seconds
+     */
+    abstract void integrate(PhysicsWorld world, int from, int to, float delta);
+
+}
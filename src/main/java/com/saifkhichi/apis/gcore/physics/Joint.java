@@ -0,0 +1,198 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * A constraint between the centers of two bodies of a {@link PhysicsWorld}.
+ * <p>
+ * Joints are solved by the world with sequential impulses, like contacts:
+ * every iteration applies an impulse to both bodies along the line between
+ * them, which removes the relative velocity that would break the constraint,
+ * and the positions are then projected back onto the constraint. The impulse
+ * a joint ends up applying in a step is kept, and applied again at the start
+ * of the next step (warm starting). Since the impulses of a resting chain
+ * barely change from step to step, the solver then starts close to the
+ * solution and needs only a few iterations.
+ * <p>
+ * Joints connect their bodies into one island: bodies joined together fall
+ * asleep together, and a sleeping body is woken up when the body it is joined
+ * to moves. A joint whose bodies are no longer part of its world is ignored.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see PhysicsWorld#addJoint(Joint)
+ */
+public abstract strictfp class Joint {
+
+    /**
+     * Fraction of the error removed by each position iteration.
+     */
+    private static final float CORRECTION = 0.8f;
+
+    final RigidBody bodyA, bodyB;
+
+    /**
+     * Impulse applied along the axis in the last step, kept for warm
+     * starting.
+     */
+    float impulse = 0.0f;
+
+    /**
+     * Data of the current step: length of the step, indices of the bodies,
+     * axis from the first body to the second, distance between them, and the
+     * mass the impulses act on.
+     */
+    float delta;
+    int a, b;
+    float axisX, axisY;
+    float distance;
+    float effectiveMass;
+
+    Joint(RigidBody bodyA, RigidBody bodyB) {
+        if (bodyA == null || bodyB == null) {
+            throw new NullPointerException("body == null");
+        }
+        if (bodyA == bodyB) {
+            throw new IllegalArgumentException("Cannot join a body to itself");
+        }
+        this.bodyA = bodyA;
+        this.bodyB = bodyB;
+    }
+
+    public RigidBody getBodyA() {
+        return bodyA;
+    }
+
+    public RigidBody getBodyB() {
+        return bodyB;
+    }
+
+    /**
+     * Get the impulse the joint applied to its second body in the last step.
+     * Divided by the time step, this is the force holding the joint
+     * together, e.g. to break a rope that is pulled too hard.
+     *
+     * @return the impulse along the line from the first body to the second;
+     * negative when the joint pulls the bodies together
+     */
+    public float getImpulse() {
+        return impulse;
+    }
+
+    /**
+     * Finds the axis and distance of the bodies for a step, wakes a body up
+     * if the other one is awake, and applies the impulse of the last step.
+     *
+     * @return false if the joint has nothing to do in this step
+     */
+    final boolean prepare(PhysicsWorld world, float delta, boolean warmStart) {
+        if (bodyA.world != world || bodyB.world != world) return false;
+
+        this.delta = delta;
+        a = bodyA.index;
+        b = bodyB.index;
+        float inverseMass = world.inverseMass[a] + world.inverseMass[b];
+        if (inverseMass == 0) return false;
+        boolean restingA = world.asleep[a] || world.inverseMass[a] == 0;
+        boolean restingB = world.asleep[b] || world.inverseMass[b] == 0;
+        if (restingA && restingB) return false;
+        if (world.asleep[a]) world.wake(a);
+        if (world.asleep[b]) world.wake(b);
+
+        float dx = world.x[b] - world.x[a], dy = world.y[b] - world.y[a];
+        distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if (distance > 0) {
+            axisX = dx / distance;
+            axisY = dy / distance;
+        } else {
+            axisX = 1.0f;
+            axisY = 0.0f;
+        }
+        effectiveMass = 1.0f / inverseMass;
+
+        if (!begin(world, delta)) {
+            impulse = 0.0f;
+            return false;
+        }
+        if (warmStart) {
+            apply(world, impulse);
+        } else {
+            impulse = 0.0f;
+        }
+        return true;
+    }
+
+    /**
+     * Prepares the constraint of this joint for a step, after the axis and
+     * distance have been found.
+     *
+     * @return false if the joint has nothing to do in this step
+     */
+    abstract boolean begin(PhysicsWorld world, float delta);
+
+    /**
+     * Applies one iteration of impulses.
+     */
+    abstract void solveVelocity(PhysicsWorld world);
+
+    /**
+     * Moves the bodies back onto the constraint.
+     */
+    abstract void solvePosition(PhysicsWorld world);
+
+    /**
+     * Get the relative velocity of the bodies along the axis.
+     */
+    final float approach(PhysicsWorld world) {
+        return (world.vx[b] - world.vx[a]) * axisX + (world.vy[b] - world.vy[a]) * axisY;
+    }
+
+    /**
+     * Applies an impulse along the axis: forwards to the second body, and
+     * backwards to the first.
+     * <p>
+     * The bodies have already been moved with their velocities in this step,
+     * so they are also moved by the change in velocity. Otherwise a joint
+     * holding a body up would have to leave it moving up to make up for the
+     * fall in the next step, and the body could never fall asleep.
+     */
+    final void apply(PhysicsWorld world, float lambda) {
+        float px = lambda * axisX, py = lambda * axisY;
+        float inverseMassA = world.inverseMass[a], inverseMassB = world.inverseMass[b];
+        if (inverseMassA != 0) {
+            float dvx = px * inverseMassA, dvy = py * inverseMassA;
+            world.vx[a] -= dvx;
+            world.vy[a] -= dvy;
+            world.x[a] -= dvx * delta;
+            world.y[a] -= dvy * delta;
+        }
+        if (inverseMassB != 0) {
+            float dvx = px * inverseMassB, dvy = py * inverseMassB;
+            world.vx[b] += dvx;
+            world.vy[b] += dvy;
+            world.x[b] += dvx * delta;
+            world.y[b] += dvy * delta;
+        }
+    }
+
+    /**
+     * Moves the bodies along the line between them, a fraction of the way
+     * back into a range of distances.
+     */
+    final void project(PhysicsWorld world, float min, float max) {
+        float dx = world.x[b] - world.x[a], dy = world.y[b] - world.y[a];
+        float current = (float) Math.sqrt(dx * dx + dy * dy);
+        if (current == 0 || (current >= min && current <= max)) return;
+
+        float target = current < min ? min : max;
+        float inverseMassA = world.inverseMass[a], inverseMassB = world.inverseMass[b];
+        float correction = CORRECTION * (current - target) / (current * (inverseMassA + inverseMassB));
+        float cx = dx * correction, cy = dy * correction;
+        if (inverseMassA != 0) {
+            world.x[a] += cx * inverseMassA;
+            world.y[a] += cy * inverseMassA;
+        }
+        if (inverseMassB != 0) {
+            world.x[b] -= cx * inverseMassB;
+            world.y[b] -= cy * inverseMassB;
+        }
+    }
+
+}
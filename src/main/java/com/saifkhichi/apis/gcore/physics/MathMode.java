@@ -0,0 +1,99 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * How the vector classes convert between polar and Cartesian coordinates.
+ * <p>
+ * The conversions of {@link Vector2D}, {@link PolarVector} and
+ * {@link Velocity} (e.g. {@link Vector2D#set(PolarVector)},
+ * {@link Vector2D#getDirection()} or {@link Velocity#setAngle(float)}) use the
+ * mode set with {@link Physics#setMathMode(MathMode)}.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp enum MathMode {
+
+    /**
+     * The functions of {@link Math}, which the JVM may replace with faster
+     * versions that differ in the last bit between platforms. This is the
+     * default, and the only mode that is not deterministic across JVMs.
+     */
+    STANDARD {
+        @Override
+        float sin(float degrees) {
+            return (float) Math.sin(Math.toRadians(degrees));
+        }
+
+        @Override
+        float cos(float degrees) {
+            return (float) Math.cos(Math.toRadians(degrees));
+        }
+
+        @Override
+        float atan2(float y, float x) {
+            return (float) Math.toDegrees(Math.atan2(y, x));
+        }
+    },
+
+    /**
+     * The functions of {@link StrictMath}, which give bit-identical results on
+     * every JVM. Use this when the simulation must be reproducible, e.g. for
+     * lockstep multiplayer or replays.
+     */
+    STRICT {
+        @Override
+        float sin(float degrees) {
+            return (float) StrictMath.sin(StrictMath.toRadians(degrees));
+        }
+
+        @Override
+        float cos(float degrees) {
+            return (float) StrictMath.cos(StrictMath.toRadians(degrees));
+        }
+
+        @Override
+        float atan2(float y, float x) {
+            return (float) StrictMath.toDegrees(StrictMath.atan2(y, x));
+        }
+    },
+
+    /**
+     * The approximations of {@link FastMath}: sine and cosine are off by less
+     * than 1e-6, and directions by less than 0.001 degrees. The approximations
+     * only use float arithmetic, so they are deterministic across JVMs too.
+     * <p>
+     * Magnitudes are still computed with {@code Math.sqrt}, which is exact and
+     * faster than {@link FastMath#invSqrt(float)} on current JVMs.
+     */
+    FAST {
+        @Override
+        float sin(float degrees) {
+            return FastMath.sinDeg(degrees);
+        }
+
+        @Override
+        float cos(float degrees) {
+            return FastMath.cosDeg(degrees);
+        }
+
+        @Override
+        float atan2(float y, float x) {
+            return FastMath.atan2Deg(y, x);
+        }
+    };
+
+    /**
+     * Get the sine of an angle in degrees.
+     */
+    abstract float sin(float degrees);
+
+    /**
+     * Get the cosine of an angle in degrees.
+     */
+    abstract float cos(float degrees);
+
+    /**
+     * Get the direction of a vector, in degrees.
+     */
+    abstract float atan2(float y, float x);
+
+}
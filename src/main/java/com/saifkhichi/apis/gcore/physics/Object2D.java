@@ -1,6 +1,6 @@
 package com.saifkhichi.apis.gcore.physics;
 
-public class Object2D {
+public strictfp class Object2D {
 
     /**
      * Width of the object.
@@ -66,7 +66,18 @@ public class Object2D {
     }
 
     public BoundingBox getBoundingBox() {
-        return new BoundingBox(position, width, height);
+        return getBoundingBox(new BoundingBox());
+    }
+
+    /**
+     * Get the bounding box of the object without allocating.
+     *
+     * @param out the box to write to
+     * @return the given box
+     */
+    public BoundingBox getBoundingBox(BoundingBox out) {
+        out.set(getX(), getY(), width, height);
+        return out;
     }
 
     public void translate(Point2D offset) {
@@ -74,7 +85,8 @@ public class Object2D {
     }
 
     public void translate(float dx, float dy) {
-        position.add(new Point2D(dx, dy));
+        position.addX(dx);
+        position.addY(dy);
     }
 
     public void translateX(float dx) {
@@ -86,15 +98,15 @@ public class Object2D {
     }
 
     public boolean isBelow(float y) {
-        return position.y + height > y;
+        return getY() + height > y;
     }
 
     public boolean isAbove(float y) {
-        return position.y < y;
+        return getY() < y;
     }
 
     public void putOn(float y) {
-        position.y = y - height / 2f;
+        setY(y - height / 2f);
     }
 
     /**
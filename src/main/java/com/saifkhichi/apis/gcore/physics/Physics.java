@@ -5,18 +5,80 @@ package com.saifkhichi.apis.gcore.physics;
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  */
-public class Physics {
+public strictfp class Physics {
 
     /**
      * The gravity of the game (in px/s^2).
      */
     public static final float GRAVITY = -9.8f;
 
+    /**
+     * How vectors are converted between polar and Cartesian coordinates.
+     */
+    static MathMode mathMode = MathMode.STANDARD;
+
+    public static MathMode getMathMode() {
+        return mathMode;
+    }
+
+    /**
+     * Set how vectors are converted between polar and Cartesian coordinates.
+     * <p>
+     * The mode applies to all vectors, and should be set once before the game
+     * starts, since changing it does not recompute vectors converted already.
+     *
+     * @param mode the math mode
+     */
+    public static void setMathMode(MathMode mode) {
+        if (mode == null) {
+            throw new NullPointerException("mode == null");
+        }
+        mathMode = mode;
+    }
+
+    /**
+     * Converts a time in milliseconds, as passed to the updates of the game,
+     * to seconds, the unit of the time steps of the physics.
+     *
+     * @param millis the time in milliseconds
+     * @return the time in seconds
+     */
+    public static float toSeconds(long millis) {
+        return millis / 1000.0f;
+    }
+
+    /**
+     * Advances a body: acceleration and gravity change its velocity, and the
+     * velocity then changes its position (semi-implicit Euler).
+     * <p>
+     * A body that is part of a {@link PhysicsWorld} is advanced with the
+     * integrator of its world instead. Its forces are only applied when the
+     * world is stepped.
+     *
+     * @param body  the body to advance
+     * @param delta the time step, in seconds
+     */
     public static void update(RigidBody body, float delta) {
+        // Bodies in a world are integrated on the arrays of the world
+        if (body.world != null) {
+            body.world.integrate(body.index, body.index + 1, delta);
+            return;
+        }
+
         // Apply acceleration to velocity
         body.velocity.addX(body.acceleration.getX() * delta);
         body.velocity.addY(body.acceleration.getY() * delta);
 
+        // Apply the forces added for this update, and clear them
+        if (body.forceX != 0 || body.forceY != 0) {
+            if (body.mass != 0) {
+                body.velocity.addX(body.forceX / body.mass * delta);
+                body.velocity.addY(body.forceY / body.mass * delta);
+            }
+            body.forceX = 0.0f;
+            body.forceY = 0.0f;
+        }
+
         // Apply gravity to velocity
         if (body.isGravitational) {
             body.velocity.addY(GRAVITY * delta);
@@ -27,6 +89,16 @@ public class Physics {
         body.translateY(body.velocity.getY() * delta);
     }
 
+    /**
+     * Adds the acceleration caused by a force to a body.
+     * <p>
+     * The acceleration stays until it is changed again. For forces that only
+     * last one update, use {@link RigidBody#addForce(float, float)}; for forces
+     * on many bodies, use a {@link ForceGenerator}.
+     *
+     * @param body  the body
+     * @param force the force
+     */
     public static void applyForce(RigidBody body, Vector2D force) {
         body.acceleration.addX(force.getX() / body.mass);
         body.acceleration.addY(force.getY() / body.mass);
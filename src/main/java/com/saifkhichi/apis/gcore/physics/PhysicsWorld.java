@@ -0,0 +1,1018 @@
+package com.saifkhichi.apis.gcore.physics;
+
+import com.saifkhichi.apis.gcore.physics.collision.Broadphase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A collection of rigid bodies that are simulated together.
+ * <p>
+ * The world stores the state of its bodies (position, velocity, acceleration,
+ * mass and whether they are affected by gravity) in parallel arrays of
+ * primitives, one entry per body. Stepping the world integrates all bodies in
+ * a single pass over these arrays, instead of following the references from
+ * every {@link RigidBody} to its position, velocity and acceleration objects.
+ * <p>
+ * A body added to a world becomes a view of its entry: its position, its
+ * {@link RigidBody#velocity} and its {@link RigidBody#acceleration} read and
+ * write the arrays of the world directly. {@link RigidBody#update(long)} no
+ * longer moves a body that is part of a world; the world moves all of its
+ * bodies in {@link #step(float)} instead. When a body is removed, its state is
+ * copied back into the body.
+ * <p>
+ * Time steps are in seconds, like velocities (units per second) and
+ * accelerations (units per second squared). The bodies are advanced by the
+ * {@link #setIntegrator(Integrator) integrator} of the world, and a step can
+ * be split into several {@link #setSubSteps(int) sub-steps} of equal length.
+ * <p>
+ * Bodies are stored densely: removing a body moves the last body into its
+ * place, so the index of a body may change when another body is removed.
+ * <p>
+ * Once a {@link Broadphase} is set with {@link #setBroadphase(Broadphase)},
+ * stepping the world also resolves collisions: the pairs of bodies found by the
+ * broadphase are tested against their {@link Shape shapes}, and bodies that
+ * touch are pushed apart with impulses, taking their mass, restitution and
+ * friction into account. Bodies with zero mass are static.
+ * <p>
+ * A world can step on several threads of a {@link ForkJoinPool} set with
+ * {@link #setPool(ForkJoinPool)}. Bodies are then integrated in parallel
+ * batches, and contacts are split into islands (groups of bodies connected by
+ * contacts) that are solved in parallel. Islands share no moving bodies, so the
+ * result is exactly the same as stepping on a single thread, whatever the
+ * number of threads. Worlds with fewer bodies than the
+ * {@link #setParallelThreshold(int) parallel threshold} always step on the
+ * calling thread, where the cost of handing out work would outweigh the gain.
+ * <p>
+ * Bodies that come to rest fall asleep: once every moving body of an island
+ * has stayed slower than the {@link #setSleepVelocity(float) sleep velocity}
+ * for the {@link #setTimeToSleep(float) time to sleep}, the whole island is
+ * put to sleep. Sleeping bodies are not integrated, and contacts between them
+ * are not solved. A sleeping body wakes up when an awake body touches it, when
+ * its position, velocity or acceleration is changed (e.g. by
+ * {@link Physics#applyForce(RigidBody, Vector2D)}), when a body it touches is
+ * moved or removed, or when {@link RigidBody#wakeUp()} is called.
+ * <p>
+ * Fast bodies can be marked as {@link RigidBody#setBullet(boolean) bullets}.
+ * A bullet is stopped at the first body it would have passed through during a
+ * step, so thin walls hold even at a low step rate. Only bullets pay for this
+ * test; other bodies only collide with what they overlap at the end of a step.
+ * <p>
+ * Forces that only last for one step are added with
+ * {@link RigidBody#addForce(float, float)}, and cleared automatically after
+ * the step. Forces that act on many bodies, like drag, wind or attractors,
+ * are computed by {@link ForceGenerator force generators}, which are
+ * evaluated before every sub-step in one pass over all bodies each.
+ * <p>
+ * Bodies can be connected by {@link Joint joints}, e.g. rods, springs and
+ * ropes, which are solved before contacts in every sub-step. Joints are warm
+ * started, so they converge in a few {@link #setJointIterations(int)
+ * iterations}.
+ * <p>
+ * Stepping is deterministic: the physics classes are {@code strictfp}, so
+ * their float arithmetic gives bit-identical results on every JVM, and
+ * parallel stepping gives the same results as serial stepping. Two worlds
+ * that start from the same state, with bodies added in the same order, stay
+ * bit-identical as long as they get the same inputs and the
+ * {@link Physics#setMathMode(MathMode) math mode} is not
+ * {@link MathMode#STANDARD}. This allows lockstep simulation, where peers only
+ * exchange inputs and compare a {@link #checksum()} of their worlds.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class PhysicsWorld {
+
+    /**
+     * Initial number of bodies the world has room for.
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Number of passes of the contact solver by default.
+     */
+    private static final int DEFAULT_SOLVER_ITERATIONS = 8;
+
+    /**
+     * Number of passes of the joint solver by default. Thanks to warm
+     * starting, joints need fewer than contacts.
+     */
+    private static final int DEFAULT_JOINT_ITERATIONS = 4;
+
+    /**
+     * Number of bodies below which a world steps serially by default.
+     */
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Number of bodies integrated, or contacts solved, by one parallel task.
+     */
+    private static final int BATCH_SIZE = 1024;
+
+    /**
+     * Speed below which a body counts as resting by default.
+     */
+    private static final float DEFAULT_SLEEP_VELOCITY = 0.2f;
+
+    /**
+     * Time a body has to rest before it falls asleep by default.
+     */
+    private static final float DEFAULT_TIME_TO_SLEEP = 0.5f;
+
+    /**
+     * Distance around a moved or removed body within which sleeping bodies
+     * are woken up, so that bodies resting just above it are found.
+     */
+    private static final float WAKE_MARGIN = 0.1f;
+
+    /**
+     * Parameters of the 64-bit FNV-1a hash used for checksums.
+     */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Number of bodies in the world.
+     */
+    int count = 0;
+
+    /**
+     * Bodies of the world, indexed like the state arrays.
+     */
+    RigidBody[] bodies;
+
+    float[] x, y;
+    float[] vx, vy;
+    float[] ax, ay;
+    float[] mass, inverseMass;
+    boolean[] gravitational;
+
+    /**
+     * Forces added to each body for the current step, and the total force
+     * on each body during the current sub-step, including force generators.
+     */
+    float[] forceX, forceY;
+    float[] netForceX, netForceY;
+
+    /**
+     * Whether each body is a bullet, stopped by continuous collision detection.
+     */
+    boolean[] bullet;
+
+    /**
+     * Whether each body is asleep, and how long it has been resting.
+     */
+    boolean[] asleep;
+    float[] restTime;
+
+    /**
+     * Islands that are not ready to sleep, marked at the body representing
+     * them, and the union-find forest of islands, while sleep is updated.
+     */
+    private boolean[] keepAwake = new boolean[0];
+    private int[] sleepRoot = new int[0];
+
+    /**
+     * Pairs of bodies linked by force generators in the current sub-step.
+     */
+    private int[] linkA = new int[0], linkB = new int[0];
+    private int linkCount = 0;
+
+    /**
+     * Broadphase finding the pairs of bodies that may collide, or null.
+     */
+    private Broadphase broadphase;
+
+    private final ContactSolver contacts = new ContactSolver(this);
+
+    private final ContinuousCollision bullets = new ContinuousCollision(this);
+
+    /**
+     * Bodies found around a body that is moved or removed.
+     */
+    private final List<Object2D> nearby = new ArrayList<Object2D>();
+
+    private final List<ForceGenerator> generators = new ArrayList<ForceGenerator>();
+
+    private final ForceAccumulator forces = new ForceAccumulator(this);
+
+    private final List<Joint> joints = new ArrayList<Joint>();
+
+    private int jointIterations = DEFAULT_JOINT_ITERATIONS;
+
+    private boolean warmStarting = true;
+
+    private int solverIterations = DEFAULT_SOLVER_ITERATIONS;
+
+    private Integrator integrator = Integrator.SEMI_IMPLICIT_EULER;
+
+    /**
+     * Number of equal parts each step is split into.
+     */
+    private int subSteps = 1;
+
+    /**
+     * Pool used to step in parallel, or null.
+     */
+    private ForkJoinPool pool;
+
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private boolean sleepingEnabled = true;
+    private float sleepVelocity = DEFAULT_SLEEP_VELOCITY;
+    private float timeToSleep = DEFAULT_TIME_TO_SLEEP;
+
+    /**
+     * Creates an empty world.
+     */
+    public PhysicsWorld() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty world with room for the given number of bodies.
+     * <p>
+     * The world grows as needed, but sizing it up front avoids copying the
+     * state arrays while bodies are added.
+     *
+     * @param capacity the initial number of bodies the world has room for
+     */
+    public PhysicsWorld(int capacity) {
+        capacity = Math.max(capacity, 1);
+        bodies = new RigidBody[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        ax = new float[capacity];
+        ay = new float[capacity];
+        mass = new float[capacity];
+        inverseMass = new float[capacity];
+        gravitational = new boolean[capacity];
+        forceX = new float[capacity];
+        forceY = new float[capacity];
+        netForceX = new float[capacity];
+        netForceY = new float[capacity];
+        bullet = new boolean[capacity];
+        asleep = new boolean[capacity];
+        restTime = new float[capacity];
+    }
+
+    /**
+     * Adds a body to the world.
+     * <p>
+     * The current state of the body is copied into the world, and from then
+     * on the body is a view of its entry in the world.
+     *
+     * @param body the body to add
+     * @return the index of the body in the world
+     * @throws IllegalArgumentException if the body already belongs to a world
+     */
+    public int add(RigidBody body) {
+        if (body.world != null) {
+            throw new IllegalArgumentException("Body already belongs to a world");
+        }
+
+        ensureCapacity(count + 1);
+        int i = count++;
+        bodies[i] = body;
+        body.attach(this, i);
+        if (broadphase != null) {
+            broadphase.add(body);
+        }
+        return i;
+    }
+
+    /**
+     * Removes a body from the world.
+     * <p>
+     * The state of the body is copied back into the body. The last body of the
+     * world takes the place of the removed one. Sleeping bodies touching the
+     * removed body are woken up, so that they do not rest on a body that is
+     * gone.
+     *
+     * @param body the body to remove
+     * @return true if the body was removed, false if it is not in this world
+     */
+    public boolean remove(RigidBody body) {
+        if (body.world != this) return false;
+
+        int i = body.index;
+        wakeTouching(i);
+        if (broadphase != null) {
+            broadphase.remove(body);
+        }
+        body.detach();
+
+        int last = --count;
+        if (i != last) {
+            move(last, i);
+        }
+        bodies[last] = null;
+        return true;
+    }
+
+    /**
+     * Get the number of bodies in the world.
+     *
+     * @return the number of bodies
+     */
+    public int getBodyCount() {
+        return count;
+    }
+
+    /**
+     * Get a body of the world.
+     *
+     * @param index the index of the body
+     * @return the body at the given index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public RigidBody getBody(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+        return bodies[index];
+    }
+
+    public Broadphase getBroadphase() {
+        return broadphase;
+    }
+
+    /**
+     * Set the broadphase used to find colliding bodies.
+     * <p>
+     * The bodies of the world are moved from the previous broadphase, if any,
+     * to the new one. The broadphase must not be used for anything else.
+     *
+     * @param broadphase the broadphase, or null to turn off collisions
+     */
+    public void setBroadphase(Broadphase broadphase) {
+        if (this.broadphase != null) {
+            for (int i = 0; i < count; i++) {
+                this.broadphase.remove(bodies[i]);
+            }
+        }
+        if (broadphase != null) {
+            for (int i = 0; i < count; i++) {
+                broadphase.add(bodies[i]);
+            }
+        }
+        this.broadphase = broadphase;
+    }
+
+    public int getSolverIterations() {
+        return solverIterations;
+    }
+
+    /**
+     * Set how many times the velocities of all contacts are solved in a step.
+     * More iterations make stacks of bodies more stable, at a higher cost.
+     *
+     * @param iterations the number of iterations
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setSolverIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        this.solverIterations = iterations;
+    }
+
+    /**
+     * Adds a force generator, which is evaluated before every sub-step.
+     *
+     * @param generator the generator
+     */
+    public void addForceGenerator(ForceGenerator generator) {
+        if (generator == null) {
+            throw new NullPointerException("generator == null");
+        }
+        generators.add(generator);
+    }
+
+    /**
+     * Removes a force generator.
+     *
+     * @param generator the generator
+     * @return true if the generator was removed, false if it was not added
+     */
+    public boolean removeForceGenerator(ForceGenerator generator) {
+        return generators.remove(generator);
+    }
+
+    /**
+     * Adds a joint between two bodies of the world.
+     *
+     * @param joint the joint
+     * @throws IllegalArgumentException if a body of the joint is not part of
+     *                                  this world
+     */
+    public void addJoint(Joint joint) {
+        if (joint.bodyA.world != this || joint.bodyB.world != this) {
+            throw new IllegalArgumentException("Joint connects a body of another world");
+        }
+        joints.add(joint);
+    }
+
+    /**
+     * Removes a joint.
+     *
+     * @param joint the joint
+     * @return true if the joint was removed, false if it was not added
+     */
+    public boolean removeJoint(Joint joint) {
+        return joints.remove(joint);
+    }
+
+    /**
+     * Get the number of joints in the world.
+     *
+     * @return the number of joints
+     */
+    public int getJointCount() {
+        return joints.size();
+    }
+
+    public int getJointIterations() {
+        return jointIterations;
+    }
+
+    /**
+     * Set how many times the velocities and positions of all joints are
+     * solved in a step. Long chains need more iterations to stay taut.
+     *
+     * @param iterations the number of iterations
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setJointIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        this.jointIterations = iterations;
+    }
+
+    public boolean isWarmStarting() {
+        return warmStarting;
+    }
+
+    /**
+     * Set whether joints start solving from the impulses of the last step.
+     * Warm starting is on by default; without it, joints need many more
+     * iterations to converge.
+     *
+     * @param warmStarting true to warm start joints
+     */
+    public void setWarmStarting(boolean warmStarting) {
+        this.warmStarting = warmStarting;
+    }
+
+    public Integrator getIntegrator() {
+        return integrator;
+    }
+
+    /**
+     * Set the method used to advance the bodies of the world. The default is
+     * {@link Integrator#SEMI_IMPLICIT_EULER}.
+     *
+     * @param integrator the integrator
+     */
+    public void setIntegrator(Integrator integrator) {
+        if (integrator == null) {
+            throw new NullPointerException("integrator == null");
+        }
+        this.integrator = integrator;
+    }
+
+    public int getSubSteps() {
+        return subSteps;
+    }
+
+    /**
+     * Set how many sub-steps each step is split into. Every sub-step
+     * integrates the bodies and resolves collisions, so more sub-steps make
+     * fast bodies and tall stacks more stable, at a proportional cost.
+     *
+     * @param subSteps the number of sub-steps per step
+     * @throws IllegalArgumentException if the number is not positive
+     */
+    public void setSubSteps(int subSteps) {
+        if (subSteps < 1) {
+            throw new IllegalArgumentException("Sub-steps must be positive: " + subSteps);
+        }
+        this.subSteps = subSteps;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Set the pool used to step the world on several threads.
+     * <p>
+     * The world does not shut the pool down. A pool can be shared by several
+     * worlds, as long as they are not stepped at the same time.
+     *
+     * @param pool the pool, or null to always step on the calling thread
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Set the number of bodies a world needs before it steps in parallel.
+     *
+     * @param bodies the smallest number of bodies to step in parallel
+     */
+    public void setParallelThreshold(int bodies) {
+        this.parallelThreshold = bodies;
+    }
+
+    public boolean isSleepingEnabled() {
+        return sleepingEnabled;
+    }
+
+    /**
+     * Set whether bodies that come to rest fall asleep. Turning sleeping off
+     * wakes up all bodies.
+     *
+     * @param enabled true to let bodies sleep
+     */
+    public void setSleepingEnabled(boolean enabled) {
+        this.sleepingEnabled = enabled;
+        if (!enabled) {
+            for (int i = 0; i < count; i++) {
+                wake(i);
+            }
+        }
+    }
+
+    public float getSleepVelocity() {
+        return sleepVelocity;
+    }
+
+    /**
+     * Set the speed below which a body counts as resting.
+     *
+     * @param velocity the speed, in units per second
+     */
+    public void setSleepVelocity(float velocity) {
+        this.sleepVelocity = velocity;
+    }
+
+    public float getTimeToSleep() {
+        return timeToSleep;
+    }
+
+    /**
+     * Set how long the bodies of an island have to rest before they fall
+     * asleep.
+     *
+     * @param time the time, in seconds
+     */
+    public void setTimeToSleep(float time) {
+        this.timeToSleep = time;
+    }
+
+    /**
+     * Get the number of moving bodies that are awake.
+     *
+     * @return the number of bodies that are neither static nor asleep
+     */
+    public int getAwakeCount() {
+        int awake = 0;
+        for (int i = 0; i < count; i++) {
+            if (!asleep[i] && inverseMass[i] != 0) awake++;
+        }
+        return awake;
+    }
+
+    /**
+     * Get the number of contacts found in the last step.
+     *
+     * @return the number of contacts
+     */
+    public int getContactCount() {
+        return contacts.count;
+    }
+
+    /**
+     * Computes a hash of the state of all bodies: their positions, velocities
+     * and whether they are asleep.
+     * <p>
+     * Worlds that are bit-identical have the same checksum, so peers of a
+     * lockstep game can compare checksums every tick to detect that they went
+     * out of sync. This does not allocate, and costs one pass over the state
+     * arrays.
+     *
+     * @return the checksum of the state of the world
+     */
+    public long checksum() {
+        long hash = FNV_OFFSET;
+        hash = (hash ^ count) * FNV_PRIME;
+        for (int i = 0; i < count; i++) {
+            hash = (hash ^ Float.floatToRawIntBits(x[i])) * FNV_PRIME;
+            hash = (hash ^ Float.floatToRawIntBits(y[i])) * FNV_PRIME;
+            hash = (hash ^ Float.floatToRawIntBits(vx[i])) * FNV_PRIME;
+            hash = (hash ^ Float.floatToRawIntBits(vy[i])) * FNV_PRIME;
+            hash = (hash ^ (asleep[i] ? 1 : 0)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Advances all bodies of the world by the time elapsed since the last
+     * update of the game.
+     *
+     * @param elapsedTime the time elapsed since the last update, in
+     *                    milliseconds
+     * @see #step(float)
+     */
+    public void update(long elapsedTime) {
+        step(Physics.toSeconds(elapsedTime));
+    }
+
+    /**
+     * Advances all bodies of the world.
+     * <p>
+     * Each sub-step advances every body with the integrator of the world:
+     * acceleration and gravity change the velocity, and the velocity changes
+     * the position. If the world has a broadphase, bullets are then stopped at
+     * their first impact, and collisions are resolved afterwards.
+     *
+     * @param delta the time step, in seconds
+     */
+    public void step(float delta) {
+        float subDelta = subSteps == 1 ? delta : delta / subSteps;
+        for (int i = 0; i < subSteps; i++) {
+            subStep(subDelta);
+        }
+
+        // Forces only last for one step
+        Arrays.fill(forceX, 0, count, 0.0f);
+        Arrays.fill(forceY, 0, count, 0.0f);
+    }
+
+    /**
+     * Advances all bodies of the world by one sub-step.
+     *
+     * @param delta the length of the sub-step, in seconds
+     */
+    private void subStep(float delta) {
+        boolean parallel = pool != null && count >= parallelThreshold;
+        boolean sweep = broadphase != null && bullets.begin();
+
+        linkCount = 0;
+        System.arraycopy(forceX, 0, netForceX, 0, count);
+        System.arraycopy(forceY, 0, netForceY, 0, count);
+        for (int i = 0; i < generators.size(); i++) {
+            generators.get(i).apply(forces);
+        }
+
+        if (parallel) {
+            pool.invoke(new IntegrateTask(this, 0, count, delta));
+        } else {
+            integrate(0, count, delta);
+        }
+        Arrays.fill(netForceX, 0, count, 0.0f);
+        Arrays.fill(netForceY, 0, count, 0.0f);
+
+        if (sweep) {
+            // Bullets are swept against the bodies where they are now, not
+            // where they were in the last sub-step
+            broadphase.update();
+            bullets.sweep(broadphase);
+        }
+        if (!joints.isEmpty()) {
+            solveJoints(delta);
+        }
+        collide(parallel);
+        if (sleepingEnabled) {
+            updateSleep(delta);
+        }
+    }
+
+    /**
+     * Wakes up a body.
+     *
+     * @param i the index of the body
+     */
+    void wake(int i) {
+        asleep[i] = false;
+        restTime[i] = 0.0f;
+    }
+
+    /**
+     * Wakes up the bodies whose boxes touch the box of a body, e.g. because
+     * the body is about to be moved or removed from under them.
+     * <p>
+     * Contacts between a sleeping body and a static one are not solved, so
+     * nothing else would notice that a sleeping body has lost its support.
+     *
+     * @param i the index of the body
+     */
+    void wakeTouching(int i) {
+        if (broadphase == null || !sleepingEnabled) return;
+
+        RigidBody body = bodies[i];
+        float halfWidth = body.getWidth() / 2.0f + WAKE_MARGIN;
+        float halfHeight = body.getHeight() / 2.0f + WAKE_MARGIN;
+        nearby.clear();
+        broadphase.queryRect(x[i] - halfWidth, y[i] - halfHeight, x[i] + halfWidth, y[i] + halfHeight, nearby);
+        for (int k = 0; k < nearby.size(); k++) {
+            RigidBody other = (RigidBody) nearby.get(k);
+            if (other.world == this && asleep[other.index]) {
+                wake(other.index);
+            }
+        }
+        nearby.clear();
+    }
+
+    /**
+     * Advances the rest time of the awake bodies, and puts islands whose
+     * moving bodies have all rested long enough to sleep.
+     *
+     * @param delta the time step
+     */
+    private void updateSleep(float delta) {
+        final float limit = sleepVelocity * sleepVelocity;
+
+        // A body is ready to sleep when it has rested long enough
+        for (int i = 0; i < count; i++) {
+            if (asleep[i] || inverseMass[i] == 0) continue;
+
+            if (vx[i] * vx[i] + vy[i] * vy[i] > limit) {
+                restTime[i] = 0.0f;
+            } else {
+                restTime[i] += delta;
+            }
+        }
+
+        // Bodies connected by contacts, joints or forces only sleep together
+        if (keepAwake.length < count) {
+            keepAwake = new boolean[bodies.length];
+            sleepRoot = new int[bodies.length];
+        }
+        for (int i = 0; i < count; i++) {
+            sleepRoot[i] = i;
+        }
+        ContactSolver contacts = this.contacts;
+        for (int c = 0; c < contacts.count; c++) {
+            join(contacts.bodyA[c], contacts.bodyB[c]);
+        }
+        for (int j = 0; j < joints.size(); j++) {
+            Joint joint = joints.get(j);
+            if (joint.bodyA.world == this && joint.bodyB.world == this) {
+                join(joint.bodyA.index, joint.bodyB.index);
+            }
+        }
+        for (int k = 0; k < linkCount; k++) {
+            join(linkA[k], linkB[k]);
+        }
+
+        // Keep the whole island of a body that is not ready awake
+        for (int i = 0; i < count; i++) {
+            if (!isReady(i)) keepAwake[root(i)] = true;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!asleep[i] && inverseMass[i] != 0 && restTime[i] >= timeToSleep && !keepAwake[root(i)]) {
+                asleep[i] = true;
+                vx[i] = 0.0f;
+                vy[i] = 0.0f;
+            }
+        }
+        Arrays.fill(keepAwake, 0, count, false);
+    }
+
+    /**
+     * Records two bodies that a force generator couples, to put them into the
+     * same island when sleep is updated.
+     *
+     * @see ForceAccumulator#link(int, int)
+     */
+    void link(int a, int b) {
+        if (linkCount == linkA.length) {
+            int newCapacity = Math.max(16, linkA.length * 2);
+            linkA = Arrays.copyOf(linkA, newCapacity);
+            linkB = Arrays.copyOf(linkB, newCapacity);
+        }
+        linkA[linkCount] = a;
+        linkB[linkCount] = b;
+        linkCount++;
+    }
+
+    /**
+     * Puts two bodies into the same island, unless one of them is static.
+     */
+    private void join(int a, int b) {
+        if (inverseMass[a] == 0 || inverseMass[b] == 0) return;
+
+        int rootA = root(a), rootB = root(b);
+        if (rootA != rootB) sleepRoot[rootB] = rootA;
+    }
+
+    /**
+     * Finds the body representing the island of a body, halving the path to
+     * it on the way.
+     */
+    private int root(int i) {
+        while (sleepRoot[i] != i) {
+            sleepRoot[i] = sleepRoot[sleepRoot[i]];
+            i = sleepRoot[i];
+        }
+        return i;
+    }
+
+    /**
+     * Tests whether a body does not keep its island awake.
+     */
+    private boolean isReady(int i) {
+        return inverseMass[i] == 0 || asleep[i] || restTime[i] >= timeToSleep;
+    }
+
+    /**
+     * Solves the joints: their velocities first, then their positions.
+     *
+     * @param delta the time step, in seconds
+     */
+    private void solveJoints(float delta) {
+        final List<Joint> joints = this.joints;
+        int active = 0;
+        for (int j = 0; j < joints.size(); j++) {
+            Joint joint = joints.get(j);
+            if (joint.prepare(this, delta, warmStarting)) {
+                // Keep the active joints at the front
+                joints.set(j, joints.get(active));
+                joints.set(active++, joint);
+            }
+        }
+
+        for (int it = 0; it < jointIterations; it++) {
+            for (int j = 0; j < active; j++) {
+                joints.get(j).solveVelocity(this);
+            }
+        }
+        for (int it = 0; it < jointIterations; it++) {
+            for (int j = 0; j < active; j++) {
+                joints.get(j).solvePosition(this);
+            }
+        }
+    }
+
+    /**
+     * Finds the contacts between bodies and resolves them.
+     *
+     * @param parallel true to solve the islands of contacts in parallel
+     */
+    void collide(boolean parallel) {
+        contacts.clear();
+        if (broadphase == null) return;
+
+        broadphase.update();
+        broadphase.findPairs(contacts);
+        if (parallel && contacts.count > BATCH_SIZE) {
+            contacts.buildIslands();
+            pool.invoke(new IslandTask(contacts, 0, contacts.islandCount, solverIterations));
+        } else {
+            contacts.solve(solverIterations);
+        }
+    }
+
+    /**
+     * Advances a range of bodies.
+     *
+     * @param from  index of the first body
+     * @param to    index after the last body
+     * @param delta the time step, in seconds
+     */
+    void integrate(int from, int to, float delta) {
+        integrator.integrate(this, from, to, delta);
+    }
+
+    /**
+     * Moves the entry of a body to another index.
+     *
+     * @param from current index of the body
+     * @param to   new index of the body
+     */
+    private void move(int from, int to) {
+        bodies[to] = bodies[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        ax[to] = ax[from];
+        ay[to] = ay[from];
+        mass[to] = mass[from];
+        inverseMass[to] = inverseMass[from];
+        gravitational[to] = gravitational[from];
+        forceX[to] = forceX[from];
+        forceY[to] = forceY[from];
+        bullet[to] = bullet[from];
+        asleep[to] = asleep[from];
+        restTime[to] = restTime[from];
+        bodies[to].index = to;
+    }
+
+    /**
+     * Makes sure the world has room for the given number of bodies.
+     *
+     * @param capacity the required number of bodies
+     */
+    private void ensureCapacity(int capacity) {
+        if (bodies.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, bodies.length * 2);
+        bodies = Arrays.copyOf(bodies, newCapacity);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        vx = Arrays.copyOf(vx, newCapacity);
+        vy = Arrays.copyOf(vy, newCapacity);
+        ax = Arrays.copyOf(ax, newCapacity);
+        ay = Arrays.copyOf(ay, newCapacity);
+        mass = Arrays.copyOf(mass, newCapacity);
+        inverseMass = Arrays.copyOf(inverseMass, newCapacity);
+        gravitational = Arrays.copyOf(gravitational, newCapacity);
+        forceX = Arrays.copyOf(forceX, newCapacity);
+        forceY = Arrays.copyOf(forceY, newCapacity);
+        netForceX = Arrays.copyOf(netForceX, newCapacity);
+        netForceY = Arrays.copyOf(netForceY, newCapacity);
+        bullet = Arrays.copyOf(bullet, newCapacity);
+        asleep = Arrays.copyOf(asleep, newCapacity);
+        restTime = Arrays.copyOf(restTime, newCapacity);
+    }
+
+    /**
+     * Integrates a range of bodies, splitting it in halves until the ranges
+     * are small enough.
+     */
+    private static final class IntegrateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final PhysicsWorld world;
+        private final int from, to;
+        private final float delta;
+
+        IntegrateTask(PhysicsWorld world, int from, int to, float delta) {
+            this.world = world;
+            this.from = from;
+            this.to = to;
+            this.delta = delta;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                world.integrate(from, to, delta);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new IntegrateTask(world, from, middle, delta),
+                    new IntegrateTask(world, middle, to, delta));
+        }
+
+    }
+
+    /**
+     * Solves a range of islands, splitting it in halves until the ranges hold
+     * few enough contacts.
+     */
+    private static final class IslandTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ContactSolver contacts;
+        private final int from, to;
+        private final int iterations;
+
+        IslandTask(ContactSolver contacts, int from, int to, int iterations) {
+            this.contacts = contacts;
+            this.from = from;
+            this.to = to;
+            this.iterations = iterations;
+        }
+
+        @Override
+        protected void compute() {
+            int size = contacts.islandStart[to] - contacts.islandStart[from];
+            if (to - from == 1 || size <= BATCH_SIZE) {
+                contacts.solveIslands(from, to, iterations);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new IslandTask(contacts, from, middle, iterations),
+                    new IslandTask(contacts, middle, to, iterations));
+        }
+
+    }
+
+}
@@ -6,7 +6,7 @@ package com.saifkhichi.apis.gcore.physics;
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  */
-public class Point2D {
+public strictfp class Point2D {
 
     /**
      * The x coordinate of the point.
@@ -50,6 +50,23 @@ public class Point2D {
         return Math.sqrt((x2 - x1) * (x2 - x1) + (y2 - y1) * (y2 - y1));
     }
 
+    /**
+     * Calculate the squared Euclidean distance between two points.
+     * <p>
+     * This is cheaper than {@link #distance(float, float, float, float)}, and
+     * enough to compare distances.
+     *
+     * @param x1 x coordinate of the first point
+     * @param y1 y coordinate of the first point
+     * @param x2 x coordinate of the second point
+     * @param y2 y coordinate of the second point
+     * @return (x2 - x1)^2 + (y2-y1)^2
+     */
+    public static float distanceSquared(float x1, float y1, float x2, float y2) {
+        float dx = x2 - x1, dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
     /**
      * Set the point coordinates.
      *
@@ -61,6 +78,15 @@ public class Point2D {
         this.y = y;
     }
 
+    /**
+     * Set the point coordinates to those of another point.
+     *
+     * @param p The point to copy.
+     */
+    public void set(Point2D p) {
+        set(p.getX(), p.getY());
+    }
+
     /**
      * Get the x coordinate of the point.
      *
@@ -103,8 +129,8 @@ public class Point2D {
      * @param p The point to add.
      */
     public void add(Point2D p) {
-        this.x += p.x;
-        this.y += p.y;
+        this.x += p.getX();
+        this.y += p.getY();
     }
 
     /**
@@ -131,8 +157,8 @@ public class Point2D {
      * @param v The vector to subtract.
      */
     public void subtract(Point2D v) {
-        this.x -= v.x;
-        this.y -= v.y;
+        this.x -= v.getX();
+        this.y -= v.getY();
     }
 
     /**
@@ -161,7 +187,7 @@ public class Point2D {
      * @return sqrt(( px - x)^2 + (py-y)^2)
      */
     public double distance(float px, float py) {
-        return distance(this.x, this.y, px, py);
+        return distance(getX(), getY(), px, py);
     }
 
     /**
@@ -171,34 +197,65 @@ public class Point2D {
      * @return sqrt(( pt.x - x)^2 + (pt.y-y)^2)
      */
     public double distance(Point2D p) {
-        return distance(this.x, this.y, p.x, p.y);
+        return distance(getX(), getY(), p.getX(), p.getY());
     }
 
+    /**
+     * Calculate the squared Euclidean distance between this point and another
+     * point.
+     *
+     * @param px x coordinate of the second point
+     * @param py y coordinate of the second point
+     * @return (px - x)^2 + (py-y)^2
+     */
+    public float distanceSquared(float px, float py) {
+        return distanceSquared(getX(), getY(), px, py);
+    }
+
+    /**
+     * Calculate the squared Euclidean distance between this point and another
+     * point.
+     *
+     * @param p the second point
+     * @return (pt.x - x)^2 + (pt.y-y)^2
+     */
+    public float distanceSquared(Point2D p) {
+        return distanceSquared(getX(), getY(), p.getX(), p.getY());
+    }
+
+    /**
+     * Checks whether another object is a point with the same coordinates.
+     * <p>
+     * The coordinates are read through {@link #getX()} and {@link #getY()},
+     * so that points whose coordinates are stored elsewhere, like the
+     * acceleration of a body in a {@link PhysicsWorld}, compare equal to plain
+     * points at the same place.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Point2D)) return false;
 
         Point2D point2D = (Point2D) o;
 
-        if (Float.compare(point2D.x, x) != 0) return false;
-        return Float.compare(point2D.y, y) == 0;
+        if (Float.compare(point2D.getX(), getX()) != 0) return false;
+        return Float.compare(point2D.getY(), getY()) == 0;
     }
 
     @Override
     public int hashCode() {
         int result;
         long temp;
-        temp = Float.floatToIntBits(x);
+        temp = Float.floatToIntBits(getX());
         result = (int) (temp ^ (temp >>> 32));
-        temp = Float.floatToIntBits(y);
+        temp = Float.floatToIntBits(getY());
         result = 31 * result + (int) (temp ^ (temp >>> 32));
         return result;
     }
 
     @Override
     public String toString() {
-        return String.format("Point2D(x=%s, y=%s)", x, y);
+        return String.format("Point2D(x=%s, y=%s)", getX(), getY());
     }
 
 }
@@ -1,6 +1,6 @@
 package com.saifkhichi.apis.gcore.physics;
 
-public class PolarVector {
+public strictfp class PolarVector {
 
     private float radius;
     private float angle;
@@ -36,6 +36,35 @@ public class PolarVector {
         return Vector2D.fromPolar(this);
     }
 
+    /**
+     * Convert the polar vector into a Cartesian vector without allocating.
+     *
+     * @param out The Cartesian vector to write to.
+     * @return The given Cartesian vector.
+     */
+    public Vector2D toCartesian(Vector2D out) {
+        out.set(getX(), getY());
+        return out;
+    }
+
+    /**
+     * Get the x coordinate of the vector in Cartesian coordinates.
+     *
+     * @return The x coordinate.
+     */
+    public float getX() {
+        return Vector2D.polarX(getRadius(), getAngle());
+    }
+
+    /**
+     * Get the y coordinate of the vector in Cartesian coordinates.
+     *
+     * @return The y coordinate.
+     */
+    public float getY() {
+        return Vector2D.polarY(getRadius(), getAngle());
+    }
+
     public void set(Vector2D v) {
         this.radius = v.getMagnitude();
         this.angle = v.getDirection();
@@ -63,49 +92,31 @@ public class PolarVector {
     }
 
     public void add(PolarVector p) {
-        // Convert to cartesian vectors.
-        Vector2D v1 = this.toCartesian();
-        Vector2D v2 = p.toCartesian();
-
-        // Add the vectors.
-        v1.add(v2);
-
-        // Convert back to polar vectors.
-        this.set(v1);
+        // Add in cartesian coordinates, and convert back to polar
+        setCartesian(getX() + p.getX(), getY() + p.getY());
     }
 
     public void subtract(PolarVector p) {
-        // Convert to cartesian vectors.
-        Vector2D v1 = this.toCartesian();
-        Vector2D v2 = p.toCartesian();
-
-        // Subtract the vectors.
-        v1.subtract(v2);
-
-        // Convert back to polar vectors.
-        this.set(v1);
+        setCartesian(getX() - p.getX(), getY() - p.getY());
     }
 
     public void multiply(float s) {
-        // Convert to cartesian vectors.
-        Vector2D v1 = this.toCartesian();
-
-        // Multiply the vector.
-        v1.multiply(s);
-
-        // Convert back to polar vectors.
-        this.set(v1);
+        setCartesian(getX() * s, getY() * s);
     }
 
     public void divide(float s) {
-        // Convert to cartesian vectors.
-        Vector2D v1 = this.toCartesian();
-
-        // Divide the vector.
-        v1.divide(s);
+        setCartesian(getX() / s, getY() / s);
+    }
 
-        // Convert back to polar vectors.
-        this.set(v1);
+    /**
+     * Set the vector from Cartesian coordinates.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     */
+    private void setCartesian(float x, float y) {
+        this.radius = Vector2D.magnitude(x, y);
+        this.angle = Vector2D.direction(x, y);
     }
 
 }
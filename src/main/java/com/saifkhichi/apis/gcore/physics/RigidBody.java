@@ -17,10 +17,14 @@ package com.saifkhichi.apis.gcore.physics;
  * at rest or moving with a constant velocity. The acceleration is a function of
  * the forces applied to the body and its mass. The forces are applied to the body
  * according to the laws of physics.
+ * <p>
+ * A rigid body can be added to a {@link PhysicsWorld}. It then becomes a handle
+ * to its entry in the world: its position, velocity and acceleration are read
+ * from and written to the arrays of the world, and the world moves the body.
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  */
-public class RigidBody extends Object2D {
+public strictfp class RigidBody extends Object2D {
 
     /**
      * The linear velocity of the object in units per second.
@@ -39,40 +43,91 @@ public class RigidBody extends Object2D {
 
     /**
      * Is the object affected by gravity?
+     * <p>
+     * While the body is part of a {@link PhysicsWorld}, this flag must be
+     * changed with {@link #setGravitational(boolean)}.
      */
     public boolean isGravitational = false;
 
+    /**
+     * The shape of the body in collisions.
+     */
+    private Shape shape = Shape.BOX;
+
+    /**
+     * How much of its speed the body keeps when it bounces off another body,
+     * from 0 (no bounce) to 1 (perfectly elastic).
+     */
+    private float restitution = 0.0f;
+
+    /**
+     * The friction coefficient of the surface of the body.
+     */
+    private float friction = 0.2f;
+
+    /**
+     * Is the body stopped by continuous collision detection?
+     */
+    private boolean bullet = false;
+
+    /**
+     * Forces added for the next update, while the body is not part of a
+     * world.
+     */
+    float forceX, forceY;
+
+    /**
+     * The world this body is part of, or null.
+     */
+    PhysicsWorld world;
+
+    /**
+     * Index of this body in its world, or -1.
+     */
+    int index = -1;
+
     public RigidBody() {
         super();
-        this.velocity = new Velocity();
-        this.acceleration = new Point2D();
+        this.velocity = new WorldVelocity();
+        this.acceleration = new WorldAcceleration();
         this.mass = 1.0f;
     }
 
     public RigidBody(int width, int height, float mass) {
         super(width, height);
-        this.velocity = new Velocity();
-        this.acceleration = new Point2D();
+        this.velocity = new WorldVelocity();
+        this.acceleration = new WorldAcceleration();
         this.mass = mass;
     }
 
     public RigidBody(int width, int height, float x, float y) {
         super(width, height, x, y);
-        this.velocity = new Velocity();
-        this.acceleration = new Point2D();
+        this.velocity = new WorldVelocity();
+        this.acceleration = new WorldAcceleration();
         this.mass = 1.0f;
     }
 
     public RigidBody(int width, int height, float x, float y, float mass) {
         super(width, height, x, y);
-        this.velocity = new Velocity();
-        this.acceleration = new Point2D();
+        this.velocity = new WorldVelocity();
+        this.acceleration = new WorldAcceleration();
         this.mass = mass;
     }
 
+    /**
+     * Updates the body.
+     * <p>
+     * A body that is not part of a world is moved according to its velocity
+     * here. A body that is part of a world is moved by the world instead.
+     *
+     * @param elapsedTime The time elapsed since the last update, in
+     *                    milliseconds.
+     */
     public void update(long elapsedTime) {
         super.update(elapsedTime);
-        Physics.update(this, elapsedTime);
+        if (world == null) {
+            Physics.update(this, Physics.toSeconds(elapsedTime));
+        }
     }
 
     public void stop() {
@@ -80,4 +135,421 @@ public class RigidBody extends Object2D {
         velocity.setY(0);
     }
 
-}
\ No newline at end of file
+    /**
+     * Adds a force that acts on the body during the next update only.
+     * <p>
+     * Unlike {@link Physics#applyForce(RigidBody, Vector2D)}, which changes
+     * the acceleration of the body until it is changed again, forces added
+     * here are cleared automatically after the next step of the world (or
+     * the next update, if the body is not part of a world).
+     *
+     * @param fx the x component of the force
+     * @param fy the y component of the force
+     */
+    public void addForce(float fx, float fy) {
+        if (world != null) {
+            world.wake(index);
+            world.forceX[index] += fx;
+            world.forceY[index] += fy;
+        } else {
+            forceX += fx;
+            forceY += fy;
+        }
+    }
+
+    /**
+     * Get the world this body is part of.
+     *
+     * @return the world of this body, or null if it is not part of a world
+     */
+    public PhysicsWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Tests whether the body is asleep in its world.
+     *
+     * @return true if the body is part of a world and asleep
+     * @see PhysicsWorld
+     */
+    public boolean isSleeping() {
+        return world != null && world.asleep[index];
+    }
+
+    /**
+     * Wakes the body up, if it is asleep in its world.
+     */
+    public void wakeUp() {
+        if (world != null) {
+            world.wake(index);
+        }
+    }
+
+    /**
+     * Set whether the body is affected by gravity.
+     *
+     * @param gravitational true if the body is affected by gravity
+     */
+    public void setGravitational(boolean gravitational) {
+        this.isGravitational = gravitational;
+        if (world != null) {
+            world.wake(index);
+            world.gravitational[index] = gravitational;
+        }
+    }
+
+    public boolean isBullet() {
+        return bullet;
+    }
+
+    /**
+     * Set whether the body is a bullet.
+     * <p>
+     * In a {@link PhysicsWorld}, a bullet is tested against the bodies along
+     * the whole path it moves during a step, and stopped at the first one it
+     * hits, instead of only against the bodies it overlaps at the end of the
+     * step. This keeps fast bodies from passing through thin ones, at an extra
+     * cost per bullet, so it should only be set on the few bodies that need it.
+     *
+     * @param bullet true if the body is a bullet
+     */
+    public void setBullet(boolean bullet) {
+        this.bullet = bullet;
+        if (world != null) {
+            world.bullet[index] = bullet;
+        }
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * Set the shape of the body in collisions.
+     *
+     * @param shape the shape of the body
+     */
+    public void setShape(Shape shape) {
+        if (shape == null) {
+            throw new NullPointerException("shape == null");
+        }
+        this.shape = shape;
+    }
+
+    /**
+     * Get the radius of the body when it is a {@link Shape#CIRCLE}.
+     *
+     * @return half the larger of the width and height of the body
+     */
+    public float getRadius() {
+        return Math.max(getWidth(), getHeight()) / 2.0f;
+    }
+
+    public float getRestitution() {
+        return restitution;
+    }
+
+    /**
+     * Set how much of its speed the body keeps when it bounces off another
+     * body. When two bodies collide, the larger restitution of the two is used.
+     *
+     * @param restitution the restitution, from 0 (no bounce) to 1
+     */
+    public void setRestitution(float restitution) {
+        this.restitution = restitution;
+    }
+
+    public float getFriction() {
+        return friction;
+    }
+
+    /**
+     * Set the friction coefficient of the surface of the body. When two
+     * bodies collide, the geometric mean of their friction is used.
+     *
+     * @param friction the friction coefficient, 0 for a frictionless surface
+     */
+    public void setFriction(float friction) {
+        this.friction = friction;
+    }
+
+    @Override
+    public float getX() {
+        return world != null ? world.x[index] : super.getX();
+    }
+
+    @Override
+    public void setX(float x) {
+        if (world != null) {
+            moveTo(x, world.y[index]);
+        } else {
+            super.setX(x);
+        }
+    }
+
+    @Override
+    public float getY() {
+        return world != null ? world.y[index] : super.getY();
+    }
+
+    @Override
+    public void setY(float y) {
+        if (world != null) {
+            moveTo(world.x[index], y);
+        } else {
+            super.setY(y);
+        }
+    }
+
+    @Override
+    public void translate(Point2D offset) {
+        translate(offset.getX(), offset.getY());
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        if (world != null) {
+            moveTo(world.x[index] + dx, world.y[index] + dy);
+        } else {
+            super.translate(dx, dy);
+        }
+    }
+
+    @Override
+    public void translateX(float dx) {
+        if (world != null) {
+            moveTo(world.x[index] + dx, world.y[index]);
+        } else {
+            super.translateX(dx);
+        }
+    }
+
+    @Override
+    public void translateY(float dy) {
+        if (world != null) {
+            moveTo(world.x[index], world.y[index] + dy);
+        } else {
+            super.translateY(dy);
+        }
+    }
+
+    /**
+     * Moves the entry of this body in its world. The body is woken up, and so
+     * are the sleeping bodies touching it before or after the move, e.g. the
+     * bodies resting on it.
+     *
+     * @param x the new x coordinate
+     * @param y the new y coordinate
+     */
+    private void moveTo(float x, float y) {
+        world.wake(index);
+        world.wakeTouching(index);
+        world.x[index] = x;
+        world.y[index] = y;
+        world.wakeTouching(index);
+    }
+
+    /**
+     * Makes this body a view of an entry in a world, and copies its current
+     * state into that entry.
+     *
+     * @param world the world the body is added to
+     * @param index index of the entry of the body
+     */
+    void attach(PhysicsWorld world, int index) {
+        world.x[index] = super.getX();
+        world.y[index] = super.getY();
+        world.vx[index] = velocity.getX();
+        world.vy[index] = velocity.getY();
+        world.ax[index] = acceleration.getX();
+        world.ay[index] = acceleration.getY();
+        world.mass[index] = mass;
+        world.inverseMass[index] = mass != 0 ? 1.0f / mass : 0.0f;
+        world.gravitational[index] = isGravitational;
+        world.forceX[index] = forceX;
+        world.forceY[index] = forceY;
+        world.bullet[index] = bullet;
+        world.asleep[index] = false;
+        world.restTime[index] = 0.0f;
+
+        this.world = world;
+        this.index = index;
+    }
+
+    /**
+     * Copies the state of this body back from its world, and makes it
+     * independent of the world again.
+     */
+    void detach() {
+        PhysicsWorld world = this.world;
+        int i = this.index;
+        this.world = null;
+        this.index = -1;
+
+        super.setX(world.x[i]);
+        super.setY(world.y[i]);
+        velocity.setComponents(world.vx[i], world.vy[i]);
+        acceleration.set(world.ax[i], world.ay[i]);
+        isGravitational = world.gravitational[i];
+        forceX = world.forceX[i];
+        forceY = world.forceY[i];
+    }
+
+    /**
+     * Velocity of the body, which reads and writes the world while the body is
+     * part of one.
+     */
+    private final class WorldVelocity extends Velocity {
+
+        @Override
+        public float getX() {
+            return world != null ? world.vx[index] : super.getX();
+        }
+
+        @Override
+        public float getY() {
+            return world != null ? world.vy[index] : super.getY();
+        }
+
+        @Override
+        public float getRadius() {
+            // The world changes the components behind our back
+            if (world != null) invalidatePolar();
+            return super.getRadius();
+        }
+
+        @Override
+        public float getAngle() {
+            if (world != null) invalidatePolar();
+            return super.getAngle();
+        }
+
+        @Override
+        void setComponents(float x, float y) {
+            if (world != null) {
+                world.wake(index);
+                world.vx[index] = x;
+                world.vy[index] = y;
+            }
+            super.setComponents(x, y);
+        }
+
+    }
+
+    /**
+     * Acceleration of the body, which reads and writes the world while the
+     * body is part of one.
+     */
+    private final class WorldAcceleration extends Point2D {
+
+        @Override
+        public void set(float x, float y) {
+            if (world != null) {
+                world.wake(index);
+                world.ax[index] = x;
+                world.ay[index] = y;
+            } else {
+                super.set(x, y);
+            }
+        }
+
+        @Override
+        public float getX() {
+            return world != null ? world.ax[index] : super.getX();
+        }
+
+        @Override
+        public void setX(float x) {
+            if (world != null) {
+                world.wake(index);
+                world.ax[index] = x;
+            } else {
+                super.setX(x);
+            }
+        }
+
+        @Override
+        public float getY() {
+            return world != null ? world.ay[index] : super.getY();
+        }
+
+        @Override
+        public void setY(float y) {
+            if (world != null) {
+                world.wake(index);
+                world.ay[index] = y;
+            } else {
+                super.setY(y);
+            }
+        }
+
+        @Override
+        public void add(Point2D p) {
+            if (world != null) {
+                world.wake(index);
+                world.ax[index] += p.getX();
+                world.ay[index] += p.getY();
+            } else {
+                super.add(p);
+            }
+        }
+
+        @Override
+        public void addX(float dx) {
+            if (world != null) {
+                world.wake(index);
+                world.ax[index] += dx;
+            } else {
+                super.addX(dx);
+            }
+        }
+
+        @Override
+        public void addY(float dy) {
+            if (world != null) {
+                world.wake(index);
+                world.ay[index] += dy;
+            } else {
+                super.addY(dy);
+            }
+        }
+
+        @Override
+        public void subtract(Point2D p) {
+            if (world != null) {
+                world.wake(index);
+                world.ax[index] -= p.getX();
+                world.ay[index] -= p.getY();
+            } else {
+                super.subtract(p);
+            }
+        }
+
+        @Override
+        public void subtractX(float dx) {
+            if (world != null) {
+                world.wake(index);
+                world.ax[index] -= dx;
+            } else {
+                super.subtractX(dx);
+            }
+        }
+
+        @Override
+        public void subtractY(float dy) {
+            if (world != null) {
+                world.wake(index);
+                world.ay[index] -= dy;
+            } else {
+                super.subtractY(dy);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Point2D(x=%s, y=%s)", getX(), getY());
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * Keeps two bodies from moving further apart than a maximum distance, like a
+ * rope between their centers. The bodies can move closer freely.
+ * <p>
+ * A chain of rope joints between small bodies makes a rope that swings and
+ * drapes over other bodies.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class RopeJoint extends Joint {
+
+    private float maxLength;
+
+    /**
+     * Speed at which the bodies can separate in the current step before the
+     * rope is taut.
+     */
+    private float slack;
+
+    /**
+     * Joins two bodies with a rope as long as their current distance.
+     *
+     * @param bodyA the first body
+     * @param bodyB the second body
+     */
+    public RopeJoint(RigidBody bodyA, RigidBody bodyB) {
+        this(bodyA, bodyB, (float) Point2D.distance(bodyA.getX(), bodyA.getY(), bodyB.getX(), bodyB.getY()));
+    }
+
+    /**
+     * Joins two bodies with a rope.
+     *
+     * @param bodyA     the first body
+     * @param bodyB     the second body
+     * @param maxLength the length of the rope
+     */
+    public RopeJoint(RigidBody bodyA, RigidBody bodyB, float maxLength) {
+        super(bodyA, bodyB);
+        setMaxLength(maxLength);
+    }
+
+    public float getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Set the length of the rope.
+     *
+     * @param maxLength the largest distance between the centers of the bodies
+     * @throws IllegalArgumentException if the length is negative
+     */
+    public void setMaxLength(float maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("Length must not be negative: " + maxLength);
+        }
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    boolean begin(PhysicsWorld world, float delta) {
+        // A slack rope stays active, but lets the bodies separate by as much
+        // as the slack in this step. It keeps its impulse for warm starting
+        // this way when it is only just slack after the positions were
+        // corrected.
+        slack = distance < maxLength ? (maxLength - distance) / delta : 0.0f;
+        return true;
+    }
+
+    @Override
+    void solveVelocity(PhysicsWorld world) {
+        // The rope can only pull, so the total impulse stays negative
+        float lambda = -effectiveMass * (approach(world) - slack);
+        float previous = impulse;
+        impulse = Math.min(previous + lambda, 0.0f);
+        apply(world, impulse - previous);
+    }
+
+    @Override
+    void solvePosition(PhysicsWorld world) {
+        project(world, 0.0f, maxLength);
+    }
+
+}
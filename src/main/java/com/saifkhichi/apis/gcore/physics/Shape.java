@@ -0,0 +1,23 @@
+package com.saifkhichi.apis.gcore.physics;
+
+/**
+ * Shapes a {@link RigidBody} can have when it collides with other bodies.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see RigidBody#setShape(Shape)
+ */
+public enum Shape {
+
+    /**
+     * The bounding box of the body, which never rotates.
+     */
+    BOX,
+
+    /**
+     * A circle around the center of the body. Like the radius of a
+     * {@link Size}, the radius is half the larger of the width and height
+     * of the body.
+     */
+    CIRCLE
+
+}
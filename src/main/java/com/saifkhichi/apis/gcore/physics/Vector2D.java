@@ -5,7 +5,7 @@ package com.saifkhichi.apis.gcore.physics;
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  */
-public class Vector2D extends Point2D {
+public strictfp class Vector2D extends Point2D {
 
     public Vector2D() {
         super(0.0f, 0.0f);
@@ -25,15 +25,25 @@ public class Vector2D extends Point2D {
         return PolarVector.fromCartesian(this);
     }
 
+    /**
+     * Convert this vector into polar coordinates without allocating.
+     *
+     * @param out The polar vector to write to.
+     * @return The given polar vector.
+     */
+    public PolarVector toPolar(PolarVector out) {
+        out.set(this);
+        return out;
+    }
+
     /**
      * Set the vector coordinates from a polar coordinate.
      *
      * @param p The polar coordinate.
      */
     public void set(PolarVector p) {
-        float x = p.getRadius() * (float) Math.cos(Math.toRadians(p.getAngle()));
-        float y = p.getRadius() * (float) Math.sin(Math.toRadians(p.getAngle()));
-        this.set(x, y);
+        float radius = p.getRadius(), angle = p.getAngle();
+        this.set(polarX(radius, angle), polarY(radius, angle));
     }
 
     /**
@@ -62,7 +72,17 @@ public class Vector2D extends Point2D {
      * @return The magnitude.
      */
     public float getMagnitude() {
-        return (float) Math.sqrt((x * x) + (y * y));
+        return magnitude(x, y);
+    }
+
+    /**
+     * Get the squared magnitude of this vector, which is cheaper than the
+     * magnitude and enough to compare lengths.
+     *
+     * @return The squared magnitude.
+     */
+    public float getMagnitudeSquared() {
+        return (x * x) + (y * y);
     }
 
     /**
@@ -71,7 +91,46 @@ public class Vector2D extends Point2D {
      * @return The direction in degrees.
      */
     public float getDirection() {
-        return (float) Math.toDegrees(Math.atan2(y, x));
+        return direction(x, y);
+    }
+
+    /**
+     * Get the x coordinate of a vector given in polar coordinates, using the
+     * {@link Physics#getMathMode() math mode} of the game.
+     *
+     * @param radius The length of the vector.
+     * @param angle  The direction of the vector in degrees.
+     * @return The x coordinate.
+     */
+    static float polarX(float radius, float angle) {
+        return radius * Physics.mathMode.cos(angle);
+    }
+
+    /**
+     * Get the y coordinate of a vector given in polar coordinates, using the
+     * {@link Physics#getMathMode() math mode} of the game.
+     *
+     * @param radius The length of the vector.
+     * @param angle  The direction of the vector in degrees.
+     * @return The y coordinate.
+     */
+    static float polarY(float radius, float angle) {
+        return radius * Physics.mathMode.sin(angle);
+    }
+
+    /**
+     * Get the length of a vector given in Cartesian coordinates.
+     */
+    static float magnitude(float x, float y) {
+        return (float) Math.sqrt((x * x) + (y * y));
+    }
+
+    /**
+     * Get the direction of a vector given in Cartesian coordinates, in
+     * degrees, using the {@link Physics#getMathMode() math mode} of the game.
+     */
+    static float direction(float x, float y) {
+        return Physics.mathMode.atan2(y, x);
     }
 
 }
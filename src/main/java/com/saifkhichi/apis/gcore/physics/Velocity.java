@@ -6,21 +6,33 @@ package com.saifkhichi.apis.gcore.physics;
  * This class is used to represent the velocity of an object. Velocity has a
  * magnitude and a direction. The magnitude is the speed of the object and the
  * direction is the angle of the object's motion.
+ * <p>
+ * The x and y components are the actual state of the velocity. The speed and
+ * direction are only computed when they are asked for, and are then kept until
+ * the components change again. Changing the components is therefore cheap,
+ * and costs no trigonometry.
  *
  * @author Saif Khan<saifkhichi96@gmail.com>
  */
-public class Velocity extends PolarVector {
+public strictfp class Velocity extends PolarVector {
 
     /**
      * The x and y components of the velocity.
      */
-    private Vector2D components;
+    private final Vector2D components;
+
+    /**
+     * Do the speed and direction stored in the polar vector match the
+     * components?
+     */
+    private boolean polarValid;
 
     /**
      * Creates a new velocity with 0 magnitude and 0 direction.
      */
     public Velocity() {
         components = new Vector2D();
+        polarValid = true;
     }
 
     /**
@@ -31,7 +43,19 @@ public class Velocity extends PolarVector {
      */
     public Velocity(float speed, float angle) {
         super(speed, angle);
-        components = Vector2D.fromPolar(this);
+        components = new Vector2D();
+        setPolar(speed, angle);
+    }
+
+    /**
+     * Get the direction in degrees.
+     *
+     * @return The direction of the velocity in degrees.
+     */
+    @Override
+    public float getAngle() {
+        updatePolar();
+        return super.getAngle();
     }
 
     /**
@@ -39,9 +63,30 @@ public class Velocity extends PolarVector {
      *
      * @param a The direction of the velocity in degrees.
      */
+    @Override
     public void setAngle(float a) {
-        super.setAngle(a);
-        components.set(this);  // Update the components
+        setPolar(getRadius(), a);
+    }
+
+    /**
+     * Get the magnitude of the velocity.
+     *
+     * @return The speed.
+     */
+    @Override
+    public float getRadius() {
+        updatePolar();
+        return super.getRadius();
+    }
+
+    /**
+     * Set the magnitude of the velocity. Does not change the direction.
+     *
+     * @param radius The magnitude of the velocity.
+     */
+    @Override
+    public void setRadius(float radius) {
+        setPolar(radius, getAngle());
     }
 
     /**
@@ -50,7 +95,7 @@ public class Velocity extends PolarVector {
      * @return The speed.
      */
     public float getSpeed() {
-        return super.getRadius();
+        return getRadius();
     }
 
     /**
@@ -59,8 +104,28 @@ public class Velocity extends PolarVector {
      * @param s The magnitude of the velocity.
      */
     public void setSpeed(float s) {
-        super.setRadius(s);
-        components.set(this);  // Update the components
+        setPolar(s, getAngle());
+    }
+
+    /**
+     * Set the speed and direction.
+     *
+     * @param radius The magnitude of the velocity.
+     * @param angle  The direction of the velocity in degrees.
+     */
+    @Override
+    public void set(float radius, float angle) {
+        setPolar(radius, angle);
+    }
+
+    /**
+     * Set the velocity from its x and y components.
+     *
+     * @param v The components of the velocity.
+     */
+    @Override
+    public void set(Vector2D v) {
+        setComponents(v.getX(), v.getY());
     }
 
     /**
@@ -68,6 +133,7 @@ public class Velocity extends PolarVector {
      *
      * @return The x component of the velocity.
      */
+    @Override
     public float getX() {
         return components.getX();
     }
@@ -79,8 +145,7 @@ public class Velocity extends PolarVector {
      * @param x The x component of the velocity.
      */
     public void setX(float x) {
-        components.setX(x);
-        this.set(components);  // Update the speed and direction
+        setComponents(x, getY());
     }
 
     /**
@@ -88,6 +153,7 @@ public class Velocity extends PolarVector {
      *
      * @return The y component of the velocity.
      */
+    @Override
     public float getY() {
         return components.getY();
     }
@@ -99,8 +165,22 @@ public class Velocity extends PolarVector {
      * @param y The y component of the velocity.
      */
     public void setY(float y) {
-        components.setY(y);
-        this.set(components);  // Update the speed and direction
+        setComponents(getX(), y);
+    }
+
+    @Override
+    public Vector2D toCartesian() {
+        return new Vector2D(getX(), getY());
+    }
+
+    /**
+     * Add the specified vector to this velocity.
+     *
+     * @param p The vector to add.
+     */
+    @Override
+    public void add(PolarVector p) {
+        setComponents(getX() + p.getX(), getY() + p.getY());
     }
 
     /**
@@ -109,18 +189,25 @@ public class Velocity extends PolarVector {
      * @param v The velocity to add.
      */
     public void add(Velocity v) {
-        super.add(v);
-        components.set(this);  // Update the components
+        setComponents(getX() + v.getX(), getY() + v.getY());
     }
 
     public void addX(float x) {
-        components.addX(x);
-        this.set(components);  // Update the speed and direction
+        setComponents(getX() + x, getY());
     }
 
     public void addY(float y) {
-        components.addY(y);
-        this.set(components);  // Update the speed and direction
+        setComponents(getX(), getY() + y);
+    }
+
+    /**
+     * Subtract the specified vector from this velocity.
+     *
+     * @param p The vector to subtract.
+     */
+    @Override
+    public void subtract(PolarVector p) {
+        setComponents(getX() - p.getX(), getY() - p.getY());
     }
 
     /**
@@ -129,18 +216,15 @@ public class Velocity extends PolarVector {
      * @param v The velocity to subtract.
      */
     public void subtract(Velocity v) {
-        super.subtract(v);
-        components.set(this);  // Update the components
+        setComponents(getX() - v.getX(), getY() - v.getY());
     }
 
     public void subtractX(float x) {
-        components.subtractX(x);
-        this.set(components);  // Update the speed and direction
+        setComponents(getX() - x, getY());
     }
 
     public void subtractY(float y) {
-        components.subtractY(y);
-        this.set(components);  // Update the speed and direction
+        setComponents(getX(), getY() - y);
     }
 
     /**
@@ -149,8 +233,7 @@ public class Velocity extends PolarVector {
      * @param s The scalar to multiply by.
      */
     public void multiply(float s) {
-        super.multiply(s);
-        components.set(this);  // Update the components
+        setComponents(getX() * s, getY() * s);
     }
 
     /**
@@ -159,8 +242,55 @@ public class Velocity extends PolarVector {
      * @param s The scalar to divide by.
      */
     public void divide(float s) {
-        super.divide(s);
-        components.set(this);  // Update the components
+        setComponents(getX() / s, getY() / s);
+    }
+
+    /**
+     * Sets the x and y components of the velocity.
+     * <p>
+     * Every change of the velocity goes through this method, so subclasses
+     * that store the components elsewhere only need to override this method
+     * together with {@link #getX()} and {@link #getY()}.
+     *
+     * @param x The x component of the velocity.
+     * @param y The y component of the velocity.
+     */
+    void setComponents(float x, float y) {
+        components.set(x, y);
+        polarValid = false;
+    }
+
+    /**
+     * Forgets the cached speed and direction, e.g. because the components
+     * were changed without {@link #setComponents(float, float)}.
+     */
+    void invalidatePolar() {
+        polarValid = false;
+    }
+
+    /**
+     * Sets the velocity from a speed and direction, and keeps them as the
+     * cached polar form.
+     *
+     * @param speed The magnitude of the velocity.
+     * @param angle The direction of the velocity in degrees.
+     */
+    private void setPolar(float speed, float angle) {
+        setComponents(Vector2D.polarX(speed, angle), Vector2D.polarY(speed, angle));
+        super.set(speed, angle);
+        polarValid = true;
+    }
+
+    /**
+     * Computes the speed and direction from the components, if they changed
+     * since the last time.
+     */
+    private void updatePolar() {
+        if (polarValid) return;
+
+        float x = getX(), y = getY();
+        super.set(Vector2D.magnitude(x, y), Vector2D.direction(x, y));
+        polarValid = true;
     }
 
 }
@@ -0,0 +1,80 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+import java.util.List;
+
+/**
+ * Finds objects whose bounding boxes may overlap without testing every pair.
+ * <p>
+ * A broadphase keeps its own copy of the bounding boxes of its objects. The
+ * copies are refreshed by {@link #update()}, which should be called once per
+ * tick after the objects have moved; queries and pairs always refer to the
+ * boxes of the last update.
+ * <p>
+ * Queries append their results to a list supplied by the caller, and pairs
+ * are reported to a callback, so that a broadphase can be queried every tick
+ * without allocating.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public interface Broadphase {
+
+    /**
+     * Adds an object.
+     *
+     * @param object the object to add
+     * @throws IllegalArgumentException if the object has already been added
+     */
+    void add(Object2D object);
+
+    /**
+     * Removes an object.
+     *
+     * @param object the object to remove
+     * @return true if the object was removed, false if it was not added
+     */
+    boolean remove(Object2D object);
+
+    /**
+     * Get the number of objects.
+     *
+     * @return the number of objects
+     */
+    int size();
+
+    /**
+     * Refreshes the bounding boxes of all objects.
+     */
+    void update();
+
+    /**
+     * Finds the objects whose bounding boxes overlap a rectangle.
+     *
+     * @param left    the left edge of the rectangle
+     * @param bottom  the bottom edge of the rectangle
+     * @param right   the right edge of the rectangle
+     * @param top     the top edge of the rectangle
+     * @param results the list the objects found are appended to
+     * @return the number of objects found
+     */
+    int queryRect(float left, float bottom, float right, float top, List<Object2D> results);
+
+    /**
+     * Finds the objects whose bounding boxes contain a point.
+     *
+     * @param x       the x coordinate of the point
+     * @param y       the y coordinate of the point
+     * @param results the list the objects found are appended to
+     * @return the number of objects found
+     */
+    int queryPoint(float x, float y, List<Object2D> results);
+
+    /**
+     * Reports every pair of objects whose bounding boxes overlap, exactly once.
+     *
+     * @param callback the callback receiving the pairs
+     */
+    void findPairs(PairCallback callback);
+
+}
@@ -0,0 +1,638 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A broadphase that keeps objects in a balanced tree of bounding boxes.
+ * <p>
+ * Every object is a leaf of the tree, and every inner node holds a box that
+ * encloses the boxes of its two children. Queries and ray casts only descend
+ * into nodes whose boxes they touch, so they take logarithmic time however
+ * unevenly the objects are spread and however different their sizes are. This
+ * makes the tree a better fit than a {@link SpatialHashGrid} for scenes that
+ * mix large level geometry with small, fast objects.
+ * <p>
+ * The leaves hold boxes that are enlarged by a margin. {@link #update()} only
+ * moves an object in the tree once its bounding box leaves its enlarged box,
+ * so objects that move a little from tick to tick cost almost nothing to
+ * update. The tree is rebalanced with rotations as objects are moved, which
+ * keeps it shallow.
+ * <p>
+ * All nodes are kept in arrays that are reused, so once the tree has grown to
+ * fit its objects, neither updates nor queries allocate.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class DynamicAabbTree implements Broadphase {
+
+    private static final int NULL = -1;
+
+    /**
+     * Margin added around bounding boxes by default.
+     */
+    private static final float DEFAULT_MARGIN = 4.0f;
+
+    private final float margin;
+
+    private final ProxyTable proxies;
+
+    /**
+     * The leaf of each object.
+     */
+    private int[] leafOf;
+
+    /**
+     * The nodes of the tree. Leaves have no children and hold the id of their
+     * object; inner nodes hold no object. The parent of a free node is the
+     * next free node.
+     */
+    private float[] nodeLeft, nodeBottom, nodeRight, nodeTop;
+    private int[] parent, child1, child2, height, nodeObject;
+    private int nodeCapacity;
+    private int nodeCount = 0;
+    private int freeNode = NULL;
+
+    private int root = NULL;
+
+    /**
+     * Stack of nodes still to visit by a query.
+     */
+    private int[] stack = new int[64];
+
+    /**
+     * Callback of {@link #raycastClosest}, kept to avoid allocating.
+     */
+    private final ClosestHit closestHit = new ClosestHit();
+
+    /**
+     * Creates a tree with the default margin.
+     */
+    public DynamicAabbTree() {
+        this(DEFAULT_MARGIN, 64);
+    }
+
+    /**
+     * Creates a tree.
+     *
+     * @param margin   how far the box of a leaf reaches beyond the bounding
+     *                 box of its object
+     * @param capacity the initial number of objects the tree has room for
+     * @throws IllegalArgumentException if the margin is negative
+     */
+    public DynamicAabbTree(float margin, int capacity) {
+        if (!(margin >= 0)) {
+            throw new IllegalArgumentException("Margin must not be negative: " + margin);
+        }
+
+        this.margin = margin;
+        this.proxies = new ProxyTable(capacity);
+        this.leafOf = new int[proxies.getCapacity()];
+        allocateNodes(Math.max(2 * capacity, 16));
+    }
+
+    @Override
+    public void add(Object2D object) {
+        int id = proxies.add(object);
+        if (leafOf.length < proxies.getCapacity()) {
+            leafOf = Arrays.copyOf(leafOf, proxies.getCapacity());
+        }
+
+        int leaf = allocateNode();
+        nodeObject[leaf] = id;
+        fatten(leaf, id);
+        insertLeaf(leaf);
+        leafOf[id] = leaf;
+    }
+
+    @Override
+    public boolean remove(Object2D object) {
+        int id = proxies.remove(object);
+        if (id < 0) return false;
+
+        int leaf = leafOf[id];
+        removeLeaf(leaf);
+        freeNode(leaf);
+        leafOf[id] = NULL;
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Objects whose bounding box is still inside the box of their leaf stay
+     * where they are in the tree.
+     */
+    @Override
+    public void update() {
+        final ProxyTable proxies = this.proxies;
+        int limit = proxies.getIdLimit();
+
+        for (int id = 0; id < limit; id++) {
+            if (proxies.objects[id] == null) continue;
+
+            proxies.refresh(id);
+            int leaf = leafOf[id];
+            if (nodeLeft[leaf] <= proxies.left[id] && proxies.right[id] <= nodeRight[leaf]
+                    && nodeBottom[leaf] <= proxies.bottom[id] && proxies.top[id] <= nodeTop[leaf]) {
+                continue;
+            }
+
+            removeLeaf(leaf);
+            fatten(leaf, id);
+            insertLeaf(leaf);
+        }
+    }
+
+    @Override
+    public int queryRect(float left, float bottom, float right, float top, List<Object2D> results) {
+        if (root == NULL) return 0;
+
+        int found = 0;
+        int size = 0;
+        stack[size++] = root;
+        while (size > 0) {
+            int node = stack[--size];
+            if (nodeLeft[node] > right || left > nodeRight[node]
+                    || nodeBottom[node] > top || bottom > nodeTop[node]) {
+                continue;
+            }
+
+            if (child1[node] == NULL) {
+                int id = nodeObject[node];
+                if (proxies.overlaps(id, left, bottom, right, top)) {
+                    results.add(proxies.objects[id]);
+                    found++;
+                }
+            } else {
+                ensureStack(size + 2);
+                stack[size++] = child1[node];
+                stack[size++] = child2[node];
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public int queryPoint(float x, float y, List<Object2D> results) {
+        return queryRect(x, y, x, y, results);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pairs are found by querying the tree with the bounding box of every
+     * object.
+     */
+    @Override
+    public void findPairs(PairCallback callback) {
+        final ProxyTable proxies = this.proxies;
+        if (root == NULL) return;
+
+        int limit = proxies.getIdLimit();
+        for (int a = 0; a < limit; a++) {
+            if (proxies.objects[a] == null) continue;
+
+            float left = proxies.left[a], bottom = proxies.bottom[a];
+            float right = proxies.right[a], top = proxies.top[a];
+
+            int size = 0;
+            stack[size++] = root;
+            while (size > 0) {
+                int node = stack[--size];
+                if (nodeLeft[node] > right || left > nodeRight[node]
+                        || nodeBottom[node] > top || bottom > nodeTop[node]) {
+                    continue;
+                }
+
+                if (child1[node] == NULL) {
+                    int b = nodeObject[node];
+                    if (b > a && proxies.overlaps(a, b)) {
+                        callback.onPair(proxies.objects[a], proxies.objects[b]);
+                    }
+                } else {
+                    ensureStack(size + 2);
+                    stack[size++] = child1[node];
+                    stack[size++] = child2[node];
+                }
+            }
+        }
+    }
+
+    /**
+     * Casts a ray from one point to another.
+     * <p>
+     * The callback is called for the objects whose bounding boxes the ray
+     * passes through, and controls how the ray continues after each hit.
+     *
+     * @param fromX    the x coordinate of the start of the ray
+     * @param fromY    the y coordinate of the start of the ray
+     * @param toX      the x coordinate of the end of the ray
+     * @param toY      the y coordinate of the end of the ray
+     * @param callback the callback receiving the hits
+     */
+    public void raycast(float fromX, float fromY, float toX, float toY, RaycastCallback callback) {
+        if (root == NULL) return;
+
+        float dx = toX - fromX, dy = toY - fromY;
+        float maxFraction = 1.0f;
+
+        int size = 0;
+        stack[size++] = root;
+        while (size > 0) {
+            int node = stack[--size];
+            if (enter(nodeLeft[node], nodeBottom[node], nodeRight[node], nodeTop[node],
+                    fromX, fromY, dx, dy, maxFraction) < 0) {
+                continue;
+            }
+
+            if (child1[node] == NULL) {
+                int id = nodeObject[node];
+                float fraction = enter(proxies.left[id], proxies.bottom[id], proxies.right[id], proxies.top[id],
+                        fromX, fromY, dx, dy, maxFraction);
+                if (fraction < 0) continue;
+
+                float value = callback.onHit(proxies.objects[id], fraction);
+                if (value <= 0) return;
+                maxFraction = Math.min(maxFraction, value);
+            } else {
+                ensureStack(size + 2);
+                stack[size++] = child1[node];
+                stack[size++] = child2[node];
+            }
+        }
+    }
+
+    /**
+     * Finds the first object hit by a ray from one point to another, such as
+     * the object blocking the line of sight between two points.
+     *
+     * @param fromX the x coordinate of the start of the ray
+     * @param fromY the y coordinate of the start of the ray
+     * @param toX   the x coordinate of the end of the ray
+     * @param toY   the y coordinate of the end of the ray
+     * @return the closest object hit, or null if the ray hits nothing
+     */
+    public Object2D raycastClosest(float fromX, float fromY, float toX, float toY) {
+        ClosestHit hit = closestHit;
+        hit.object = null;
+        raycast(fromX, fromY, toX, toY, hit);
+
+        Object2D object = hit.object;
+        hit.object = null;
+        return object;
+    }
+
+    /**
+     * Get the height of the tree.
+     *
+     * @return the number of levels below the root, or -1 if the tree is empty
+     */
+    public int getHeight() {
+        return root == NULL ? -1 : height[root];
+    }
+
+    /**
+     * Finds where a ray enters a box, with the slab method.
+     *
+     * @return the fraction of the ray where it enters the box, or -1 if it
+     * misses the box within the given fraction
+     */
+    private static float enter(float left, float bottom, float right, float top,
+                               float x, float y, float dx, float dy, float maxFraction) {
+        float near = 0.0f, far = maxFraction;
+
+        if (dx == 0) {
+            if (x < left || x > right) return -1;
+        } else {
+            float inverse = 1.0f / dx;
+            float t1 = (left - x) * inverse, t2 = (right - x) * inverse;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+            if (near > far) return -1;
+        }
+
+        if (dy == 0) {
+            if (y < bottom || y > top) return -1;
+        } else {
+            float inverse = 1.0f / dy;
+            float t1 = (bottom - y) * inverse, t2 = (top - y) * inverse;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+            if (near > far) return -1;
+        }
+        return near;
+    }
+
+    /**
+     * Sets the box of a leaf to the bounding box of its object, enlarged by
+     * the margin.
+     */
+    private void fatten(int leaf, int id) {
+        nodeLeft[leaf] = proxies.left[id] - margin;
+        nodeBottom[leaf] = proxies.bottom[id] - margin;
+        nodeRight[leaf] = proxies.right[id] + margin;
+        nodeTop[leaf] = proxies.top[id] + margin;
+    }
+
+    /**
+     * Inserts a leaf next to the node where it increases the total perimeter
+     * of the boxes of the tree the least.
+     */
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+
+        float left = nodeLeft[leaf], bottom = nodeBottom[leaf];
+        float right = nodeRight[leaf], top = nodeTop[leaf];
+
+        // Find the best sibling for the leaf
+        int index = root;
+        while (child1[index] != NULL) {
+            int c1 = child1[index], c2 = child2[index];
+
+            float perimeter = perimeter(index);
+            float combined = unionPerimeter(index, left, bottom, right, top);
+
+            // Cost of making the leaf and this node siblings
+            float cost = 2.0f * combined;
+
+            // Cost of pushing the leaf further down
+            float inheritance = 2.0f * (combined - perimeter);
+            float cost1 = childCost(c1, left, bottom, right, top) + inheritance;
+            float cost2 = childCost(c2, left, bottom, right, top) + inheritance;
+
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? c1 : c2;
+        }
+
+        // Make a new parent for the sibling and the leaf
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        nodeObject[newParent] = NULL;
+        height[newParent] = height[sibling] + 1;
+
+        if (oldParent != NULL) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        refit(newParent);
+    }
+
+    /**
+     * Removes a leaf from the tree. The node itself is not freed.
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+
+        int p = parent[leaf];
+        int grandParent = parent[p];
+        int sibling = child1[p] == leaf ? child2[p] : child1[p];
+
+        if (grandParent != NULL) {
+            if (child1[grandParent] == p) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(p);
+            refit(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(p);
+        }
+    }
+
+    /**
+     * Recomputes the boxes and heights from a node up to the root, and
+     * rebalances the nodes on the way.
+     */
+    private void refit(int index) {
+        while (index != NULL) {
+            index = balance(index);
+
+            int c1 = child1[index], c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            union(index, c1, c2);
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Rotates the taller child of a node up if the heights of its children
+     * differ by more than one.
+     *
+     * @return the node now at the place of the given node
+     */
+    private int balance(int a) {
+        if (child1[a] == NULL || height[a] < 2) return a;
+
+        int b = child1[a], c = child2[a];
+        int difference = height[c] - height[b];
+
+        if (difference > 1) {
+            int f = child1[c], g = child2[c];
+
+            // Swap a and c
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+            }
+            int kept = child2[a];
+            union(a, b, kept);
+            height[a] = 1 + Math.max(height[b], height[kept]);
+            union(c, a, child2[c]);
+            height[c] = 1 + Math.max(height[a], height[child2[c]]);
+            return c;
+        }
+
+        if (difference < -1) {
+            int d = child1[b], e = child2[b];
+
+            // Swap a and b
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+            }
+            int kept = child1[a];
+            union(a, c, kept);
+            height[a] = 1 + Math.max(height[c], height[kept]);
+            union(b, a, child2[b]);
+            height[b] = 1 + Math.max(height[a], height[child2[b]]);
+            return b;
+        }
+
+        return a;
+    }
+
+    /**
+     * Replaces a child of a node, or the root if the node is null.
+     */
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (node == NULL) {
+            root = newChild;
+        } else if (child1[node] == oldChild) {
+            child1[node] = newChild;
+        } else {
+            child2[node] = newChild;
+        }
+    }
+
+    /**
+     * Sets the box of a node to the box enclosing the boxes of two others.
+     */
+    private void union(int node, int a, int b) {
+        nodeLeft[node] = Math.min(nodeLeft[a], nodeLeft[b]);
+        nodeBottom[node] = Math.min(nodeBottom[a], nodeBottom[b]);
+        nodeRight[node] = Math.max(nodeRight[a], nodeRight[b]);
+        nodeTop[node] = Math.max(nodeTop[a], nodeTop[b]);
+    }
+
+    private float perimeter(int node) {
+        return 2.0f * ((nodeRight[node] - nodeLeft[node]) + (nodeTop[node] - nodeBottom[node]));
+    }
+
+    /**
+     * Get the perimeter of the box enclosing a node and a box.
+     */
+    private float unionPerimeter(int node, float left, float bottom, float right, float top) {
+        float width = Math.max(nodeRight[node], right) - Math.min(nodeLeft[node], left);
+        float height = Math.max(nodeTop[node], top) - Math.min(nodeBottom[node], bottom);
+        return 2.0f * (width + height);
+    }
+
+    /**
+     * Get the cost of descending into a child to insert a box.
+     */
+    private float childCost(int child, float left, float bottom, float right, float top) {
+        float combined = unionPerimeter(child, left, bottom, right, top);
+        return child1[child] == NULL ? combined : combined - perimeter(child);
+    }
+
+    private int allocateNode() {
+        if (freeNode == NULL) {
+            allocateNodes(nodeCapacity * 2);
+        }
+
+        int node = freeNode;
+        freeNode = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        nodeObject[node] = NULL;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeNode;
+        height[node] = -1;
+        freeNode = node;
+        nodeCount--;
+    }
+
+    /**
+     * Grows the node arrays and puts the new nodes on the free list.
+     */
+    private void allocateNodes(int capacity) {
+        int oldCapacity = nodeCapacity;
+        if (oldCapacity == 0) {
+            nodeLeft = new float[capacity];
+            nodeBottom = new float[capacity];
+            nodeRight = new float[capacity];
+            nodeTop = new float[capacity];
+            parent = new int[capacity];
+            child1 = new int[capacity];
+            child2 = new int[capacity];
+            height = new int[capacity];
+            nodeObject = new int[capacity];
+        } else {
+            nodeLeft = Arrays.copyOf(nodeLeft, capacity);
+            nodeBottom = Arrays.copyOf(nodeBottom, capacity);
+            nodeRight = Arrays.copyOf(nodeRight, capacity);
+            nodeTop = Arrays.copyOf(nodeTop, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            child1 = Arrays.copyOf(child1, capacity);
+            child2 = Arrays.copyOf(child2, capacity);
+            height = Arrays.copyOf(height, capacity);
+            nodeObject = Arrays.copyOf(nodeObject, capacity);
+        }
+
+        for (int node = capacity - 1; node >= oldCapacity; node--) {
+            parent[node] = freeNode;
+            height[node] = -1;
+            freeNode = node;
+        }
+        nodeCapacity = capacity;
+    }
+
+    private void ensureStack(int size) {
+        if (stack.length < size) {
+            stack = Arrays.copyOf(stack, Math.max(size, stack.length * 2));
+        }
+    }
+
+    /**
+     * Callback that keeps the closest hit and shortens the ray to it.
+     */
+    private static final class ClosestHit implements RaycastCallback {
+
+        Object2D object;
+
+        @Override
+        public float onHit(Object2D object, float fraction) {
+            this.object = object;
+            return fraction;
+        }
+
+    }
+
+}
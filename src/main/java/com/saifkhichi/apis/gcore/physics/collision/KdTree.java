@@ -0,0 +1,380 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Point2D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A spatial index of points that finds the nearest points to a location.
+ * <p>
+ * The tree is built in bulk from a set of points, typically once per tick
+ * from the positions of all agents, and then answers any number of queries
+ * for the nearest point, the k nearest points, or all points within a radius.
+ * Each query only visits the part of the tree near the query location, so it
+ * takes logarithmic time instead of testing every point.
+ * <p>
+ * Points are identified by their index in the list or arrays the tree was
+ * built from. Queries write these indices into buffers given by the caller,
+ * and compare squared distances, so they neither allocate nor take square
+ * roots. All arrays are reused between builds, so once the tree has grown to
+ * fit its points, rebuilding it does not allocate either.
+ * <p>
+ * The tree is balanced: each node splits its points at the median along
+ * alternating axes, and the nodes are stored implicitly in a single array,
+ * with the points near each other in space also near each other in memory.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class KdTree {
+
+    /**
+     * Number of points in the tree.
+     */
+    private int count = 0;
+
+    /**
+     * Coordinates of the points, and their indices in the input, in tree
+     * order: the median of a range is the node splitting it.
+     */
+    private float[] pointX, pointY;
+    private int[] pointIndex;
+
+    /**
+     * Best squared distance found so far by a query.
+     */
+    private float bestDistance;
+    private int best;
+
+    /**
+     * Max-heap of the k nearest points found so far, by squared distance.
+     */
+    private float[] heapDistance = new float[0];
+    private int[] heap;
+    private int heapSize, heapCapacity;
+
+    /**
+     * Points written and found by a radius query.
+     */
+    private int[] found;
+    private int foundCount;
+
+    /**
+     * Creates an empty tree.
+     */
+    public KdTree() {
+        this(64);
+    }
+
+    /**
+     * Creates an empty tree with room for the given number of points.
+     *
+     * @param capacity the initial number of points the tree has room for
+     */
+    public KdTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        pointX = new float[capacity];
+        pointY = new float[capacity];
+        pointIndex = new int[capacity];
+    }
+
+    /**
+     * Get the number of points in the tree.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Builds the tree from a list of points, replacing the previous points.
+     * <p>
+     * The coordinates are copied, so the points may change afterwards without
+     * affecting the tree until it is built again.
+     *
+     * @param points the points
+     */
+    public void build(List<? extends Point2D> points) {
+        int n = points.size();
+        ensureCapacity(n);
+        for (int i = 0; i < n; i++) {
+            Point2D p = points.get(i);
+            pointX[i] = p.getX();
+            pointY[i] = p.getY();
+            pointIndex[i] = i;
+        }
+        count = n;
+        split(0, n, 0);
+    }
+
+    /**
+     * Builds the tree from arrays of coordinates, replacing the previous
+     * points.
+     *
+     * @param x     the x coordinates of the points
+     * @param y     the y coordinates of the points
+     * @param count the number of points
+     */
+    public void build(float[] x, float[] y, int count) {
+        ensureCapacity(count);
+        System.arraycopy(x, 0, pointX, 0, count);
+        System.arraycopy(y, 0, pointY, 0, count);
+        for (int i = 0; i < count; i++) {
+            pointIndex[i] = i;
+        }
+        this.count = count;
+        split(0, count, 0);
+    }
+
+    /**
+     * Finds the point nearest to a location.
+     *
+     * @param x x coordinate of the location
+     * @param y y coordinate of the location
+     * @return the index of the nearest point, or -1 if the tree is empty
+     */
+    public int findNearest(float x, float y) {
+        best = -1;
+        bestDistance = Float.POSITIVE_INFINITY;
+        nearest(0, count, 0, x, y);
+        return best;
+    }
+
+    /**
+     * Finds the k points nearest to a location.
+     *
+     * @param x       x coordinate of the location
+     * @param y       y coordinate of the location
+     * @param indices buffer the indices of the points are written to, nearest
+     *                first; k is the length of the buffer
+     * @return the number of points found, which is less than k if the tree has
+     * fewer points
+     */
+    public int findNearest(float x, float y, int[] indices) {
+        int k = indices.length;
+        if (heapDistance.length < k) {
+            heapDistance = new float[k];
+        }
+        heap = indices;
+        heapSize = 0;
+        heapCapacity = k;
+        if (k > 0) {
+            nearestK(0, count, 0, x, y);
+        }
+
+        // Sort the heap in place, nearest first
+        int found = heapSize;
+        while (heapSize > 1) {
+            int last = --heapSize;
+            swapHeap(0, last);
+            siftDown(0);
+        }
+        heap = null;
+        return found;
+    }
+
+    /**
+     * Finds all points within a distance of a location, in no particular
+     * order.
+     *
+     * @param x       x coordinate of the location
+     * @param y       y coordinate of the location
+     * @param radius  the distance
+     * @param indices buffer the indices of the points are written to
+     * @return the number of points found; if it is larger than the buffer,
+     * only as many points as fit were written
+     */
+    public int findWithin(float x, float y, float radius, int[] indices) {
+        found = indices;
+        foundCount = 0;
+        within(0, count, 0, x, y, radius * radius);
+        found = null;
+        return foundCount;
+    }
+
+    /**
+     * Arranges a range of points so that its median along an axis splits it,
+     * and does the same for both halves along the other axis.
+     */
+    private void split(int from, int to, int axis) {
+        while (to - from > 1) {
+            int middle = (from + to) >>> 1;
+            select(from, to - 1, middle, axis);
+            split(from, middle, axis ^ 1);
+            from = middle + 1;
+            axis ^= 1;
+        }
+    }
+
+    /**
+     * Moves the k-th smallest point of a range along an axis to index k, with
+     * smaller points before it and larger ones after it (quickselect).
+     */
+    private void select(int left, int right, int k, int axis) {
+        final float[] keys = axis == 0 ? pointX : pointY;
+        while (left < right) {
+            float pivot = keys[(left + right) >>> 1];
+            int i = left, j = right;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void nearest(int from, int to, int axis, float x, float y) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            float dx = x - pointX[middle], dy = y - pointY[middle];
+            float distance = dx * dx + dy * dy;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = pointIndex[middle];
+            }
+
+            // Visit the side of the location first, and the other side only
+            // if it may hold a nearer point
+            float offset = axis == 0 ? dx : dy;
+            if (offset < 0) {
+                nearest(from, middle, axis ^ 1, x, y);
+                if (offset * offset >= bestDistance) return;
+                from = middle + 1;
+            } else {
+                nearest(middle + 1, to, axis ^ 1, x, y);
+                if (offset * offset >= bestDistance) return;
+                to = middle;
+            }
+            axis ^= 1;
+        }
+    }
+
+    private void nearestK(int from, int to, int axis, float x, float y) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            float dx = x - pointX[middle], dy = y - pointY[middle];
+            offer(pointIndex[middle], dx * dx + dy * dy);
+
+            float offset = axis == 0 ? dx : dy;
+            if (offset < 0) {
+                nearestK(from, middle, axis ^ 1, x, y);
+                if (heapSize == heapCapacity && offset * offset >= heapDistance[0]) return;
+                from = middle + 1;
+            } else {
+                nearestK(middle + 1, to, axis ^ 1, x, y);
+                if (heapSize == heapCapacity && offset * offset >= heapDistance[0]) return;
+                to = middle;
+            }
+            axis ^= 1;
+        }
+    }
+
+    private void within(int from, int to, int axis, float x, float y, float limit) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            float dx = x - pointX[middle], dy = y - pointY[middle];
+            if (dx * dx + dy * dy <= limit) {
+                if (foundCount < found.length) {
+                    found[foundCount] = pointIndex[middle];
+                }
+                foundCount++;
+            }
+
+            float offset = axis == 0 ? dx : dy;
+            boolean both = offset * offset <= limit;
+            if (offset < 0) {
+                if (!both) {
+                    to = middle;
+                } else {
+                    within(middle + 1, to, axis ^ 1, x, y, limit);
+                    to = middle;
+                }
+            } else {
+                if (!both) {
+                    from = middle + 1;
+                } else {
+                    within(from, middle, axis ^ 1, x, y, limit);
+                    from = middle + 1;
+                }
+            }
+            axis ^= 1;
+        }
+    }
+
+    /**
+     * Adds a point to the k nearest points found so far, if it is nearer than
+     * the farthest of them.
+     */
+    private void offer(int index, float distance) {
+        if (heapSize < heapCapacity) {
+            // Sift up
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapDistance[parent] >= distance) break;
+                heap[i] = heap[parent];
+                heapDistance[i] = heapDistance[parent];
+                i = parent;
+            }
+            heap[i] = index;
+            heapDistance[i] = distance;
+        } else if (distance < heapDistance[0]) {
+            heap[0] = index;
+            heapDistance[0] = distance;
+            siftDown(0);
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1, right = left + 1;
+            if (left < heapSize && heapDistance[left] > heapDistance[largest]) largest = left;
+            if (right < heapSize && heapDistance[right] > heapDistance[largest]) largest = right;
+            if (largest == i) return;
+            swapHeap(i, largest);
+            i = largest;
+        }
+    }
+
+    private void swapHeap(int a, int b) {
+        int index = heap[a];
+        heap[a] = heap[b];
+        heap[b] = index;
+        float distance = heapDistance[a];
+        heapDistance[a] = heapDistance[b];
+        heapDistance[b] = distance;
+    }
+
+    private void swap(int a, int b) {
+        float x = pointX[a];
+        pointX[a] = pointX[b];
+        pointX[b] = x;
+        float y = pointY[a];
+        pointY[a] = pointY[b];
+        pointY[b] = y;
+        int index = pointIndex[a];
+        pointIndex[a] = pointIndex[b];
+        pointIndex[b] = index;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (pointX.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, pointX.length * 2);
+        pointX = Arrays.copyOf(pointX, newCapacity);
+        pointY = Arrays.copyOf(pointY, newCapacity);
+        pointIndex = Arrays.copyOf(pointIndex, newCapacity);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+/**
+ * Receives pairs of objects whose bounding boxes overlap.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public interface PairCallback {
+
+    /**
+     * Called once for every pair of objects whose bounding boxes overlap.
+     *
+     * @param a the first object of the pair
+     * @param b the second object of the pair
+     */
+    void onPair(Object2D a, Object2D b);
+
+}
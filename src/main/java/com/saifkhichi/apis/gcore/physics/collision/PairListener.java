@@ -0,0 +1,30 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+/**
+ * Receives the changes to the set of overlapping pairs of a broadphase.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see SweepAndPrune
+ */
+public interface PairListener {
+
+    /**
+     * Called when the bounding boxes of two objects start to overlap.
+     *
+     * @param a the first object of the pair
+     * @param b the second object of the pair
+     */
+    void onPairAdded(Object2D a, Object2D b);
+
+    /**
+     * Called when the bounding boxes of two objects stop overlapping, or one
+     * of the objects is removed.
+     *
+     * @param a the first object of the pair
+     * @param b the second object of the pair
+     */
+    void onPairRemoved(Object2D a, Object2D b);
+
+}
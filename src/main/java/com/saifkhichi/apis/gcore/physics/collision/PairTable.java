@@ -0,0 +1,135 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import java.util.Arrays;
+
+/**
+ * A hash set of pairs of object ids, with a few flags per pair.
+ * <p>
+ * Pairs are stored as longs in an open-addressing table with linear probing,
+ * so adding and removing pairs does not allocate unless the table grows.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+final class PairTable {
+
+    /**
+     * Key of a free slot.
+     */
+    static final long EMPTY = -1L;
+
+    long[] keys;
+    byte[] flags;
+    private int size = 0;
+
+    PairTable(int capacity) {
+        int n = 16;
+        while (n < 2 * capacity) n <<= 1;
+        keys = new long[n];
+        flags = new byte[n];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Get the key of a pair. The order of the ids does not matter.
+     */
+    static long key(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    static int first(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int second(long key) {
+        return (int) key;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Finds a pair.
+     *
+     * @return the slot of the pair, or -1 if it is not in the table
+     */
+    int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) return slot;
+            if (k == EMPTY) return -1;
+        }
+    }
+
+    /**
+     * Adds a pair, with no flags set, unless it is in the table already.
+     *
+     * @return the slot of the pair
+     */
+    int insert(long key) {
+        if (2 * (size + 1) > keys.length) {
+            rehash(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        flags[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    /**
+     * Removes the pair in a slot. Pairs that follow it may move to other
+     * slots.
+     */
+    void removeAt(int slot) {
+        int mask = keys.length - 1;
+        size--;
+
+        // Move back entries that would no longer be found past the hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            boolean movable = hole <= next
+                    ? home <= hole || home > next
+                    : home <= hole && home > next;
+            if (movable) {
+                keys[hole] = keys[next];
+                flags[hole] = flags[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        flags[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        byte[] oldFlags = flags;
+        keys = new long[capacity];
+        flags = new byte[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+
+            int slot = hash(oldKeys[i]) & mask;
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            flags[slot] = oldFlags[i];
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
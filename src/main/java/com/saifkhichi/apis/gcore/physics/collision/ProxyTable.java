@@ -0,0 +1,173 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The objects of a broadphase, each with an id and a copy of its bounding box.
+ * <p>
+ * Ids are small integers that stay the same while an object is in the table.
+ * The ids of removed objects are reused, so the ids in use are always below
+ * {@link #getIdLimit()}, and slots below that limit without an object hold
+ * null.
+ * <p>
+ * Bounding boxes are kept in flat arrays of edges, one entry per id, so that
+ * broadphases scan them without following a reference to a box object per
+ * object. They are read from the position and size of each object directly.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+final strictfp class ProxyTable {
+
+    private final Map<Object2D, Integer> ids = new IdentityHashMap<Object2D, Integer>();
+
+    Object2D[] objects;
+    float[] left, bottom, right, top;
+
+    /**
+     * Ids of removed objects, waiting to be reused.
+     */
+    private int[] freeIds;
+    private int freeCount = 0;
+
+    /**
+     * One more than the largest id handed out so far.
+     */
+    private int idLimit = 0;
+
+    ProxyTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        objects = new Object2D[capacity];
+        left = new float[capacity];
+        bottom = new float[capacity];
+        right = new float[capacity];
+        top = new float[capacity];
+        freeIds = new int[capacity];
+    }
+
+    /**
+     * Adds an object and reads its bounding box.
+     *
+     * @param object the object to add
+     * @return the id of the object
+     * @throws IllegalArgumentException if the object has already been added
+     */
+    int add(Object2D object) {
+        if (object == null) {
+            throw new NullPointerException("object == null");
+        }
+        if (ids.containsKey(object)) {
+            throw new IllegalArgumentException("Object has already been added");
+        }
+
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            id = idLimit++;
+            ensureCapacity(idLimit);
+        }
+
+        objects[id] = object;
+        ids.put(object, id);
+        refresh(id);
+        return id;
+    }
+
+    /**
+     * Removes an object.
+     *
+     * @param object the object to remove
+     * @return the id the object had, or -1 if it was not added
+     */
+    int remove(Object2D object) {
+        Integer id = ids.remove(object);
+        if (id == null) return -1;
+
+        objects[id] = null;
+        freeIds[freeCount++] = id;
+        return id;
+    }
+
+    /**
+     * Get the id of an object.
+     *
+     * @param object the object
+     * @return the id of the object, or -1 if it was not added
+     */
+    int idOf(Object2D object) {
+        Integer id = ids.get(object);
+        return id != null ? id : -1;
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * Get the limit below which all ids in use lie.
+     *
+     * @return one more than the largest id in use
+     */
+    int getIdLimit() {
+        return idLimit;
+    }
+
+    /**
+     * Get the number of objects the table has room for without growing.
+     *
+     * @return the capacity of the table
+     */
+    int getCapacity() {
+        return objects.length;
+    }
+
+    /**
+     * Reads the bounding box of an object again.
+     *
+     * @param id the id of the object
+     */
+    void refresh(int id) {
+        Object2D object = objects[id];
+        float halfWidth = object.getWidth() / 2.0f;
+        float halfHeight = object.getHeight() / 2.0f;
+        float x = object.getX(), y = object.getY();
+
+        left[id] = x - halfWidth;
+        right[id] = x + halfWidth;
+        bottom[id] = y - halfHeight;
+        top[id] = y + halfHeight;
+    }
+
+    /**
+     * Tests whether the boxes of two objects overlap.
+     */
+    boolean overlaps(int a, int b) {
+        return left[a] <= right[b] && left[b] <= right[a]
+                && bottom[a] <= top[b] && bottom[b] <= top[a];
+    }
+
+    /**
+     * Tests whether the box of an object overlaps a rectangle.
+     */
+    boolean overlaps(int id, float left, float bottom, float right, float top) {
+        return this.left[id] <= right && left <= this.right[id]
+                && this.bottom[id] <= top && bottom <= this.top[id];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (objects.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, objects.length * 2);
+        objects = Arrays.copyOf(objects, newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        bottom = Arrays.copyOf(bottom, newCapacity);
+        right = Arrays.copyOf(right, newCapacity);
+        top = Arrays.copyOf(top, newCapacity);
+        freeIds = Arrays.copyOf(freeIds, newCapacity);
+    }
+
+}
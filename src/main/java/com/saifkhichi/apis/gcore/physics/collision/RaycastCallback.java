@@ -0,0 +1,32 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+/**
+ * Receives the objects hit by a ray.
+ * <p>
+ * Objects are not reported in any particular order. The value returned for
+ * each hit controls how the ray continues, which allows finding the closest
+ * hit, any hit or all hits with the same cast:
+ * <ul>
+ * <li>0 ends the cast right away.</li>
+ * <li>The fraction of the hit shortens the ray to the hit, so only closer
+ * objects are reported after it.</li>
+ * <li>1 (or the current length of the ray) leaves the ray as it is.</li>
+ * </ul>
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public interface RaycastCallback {
+
+    /**
+     * Called for an object whose bounding box is hit by the ray.
+     *
+     * @param object   the object that was hit
+     * @param fraction where along the ray the box was entered, from 0 at the
+     *                 start of the ray to 1 at its end
+     * @return the new length of the ray, as a fraction of its full length
+     */
+    float onHit(Object2D object, float fraction);
+
+}
@@ -0,0 +1,310 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A broadphase that sorts objects into the cells of a uniform grid.
+ * <p>
+ * The plane is divided into square cells, and every object is entered into
+ * each cell its bounding box touches. Only objects that share a cell can
+ * overlap, so finding pairs and answering queries only looks at the objects
+ * in the cells involved. The grid is unbounded: cells are mapped into a hash
+ * table, so only cells that hold objects take up space.
+ * <p>
+ * The grid works best when objects have similar sizes, and the cell size is
+ * about the size of a typical object. Objects much bigger than a cell are
+ * entered into many cells.
+ * <p>
+ * The grid is rebuilt from scratch by {@link #update()}. All storage is kept
+ * between updates, so once it has grown to fit the objects, neither updates
+ * nor queries allocate.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class SpatialHashGrid implements Broadphase {
+
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    private final ProxyTable proxies;
+
+    /**
+     * First entry of each bucket of the hash table, or -1.
+     */
+    private int[] buckets;
+
+    /**
+     * Entries of the hash table: the object and cell of each entry, and the
+     * next entry in the same bucket.
+     */
+    private int[] entryObject, entryCellX, entryCellY, entryNext;
+    private int entryCount = 0;
+
+    /**
+     * Stamp of the last query that found each object, to report every object
+     * only once.
+     */
+    private int[] marks;
+    private int queryStamp = 0;
+
+    /**
+     * Creates a grid.
+     *
+     * @param cellSize the width and height of a cell
+     * @throws IllegalArgumentException if the cell size is not positive
+     */
+    public SpatialHashGrid(float cellSize) {
+        this(cellSize, 64);
+    }
+
+    /**
+     * Creates a grid with room for the given number of objects.
+     *
+     * @param cellSize the width and height of a cell
+     * @param capacity the initial number of objects the grid has room for
+     * @throws IllegalArgumentException if the cell size is not positive
+     */
+    public SpatialHashGrid(float cellSize, int capacity) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0f / cellSize;
+        this.proxies = new ProxyTable(capacity);
+        this.buckets = new int[tableSizeFor(capacity)];
+        this.entryObject = new int[capacity];
+        this.entryCellX = new int[capacity];
+        this.entryCellY = new int[capacity];
+        this.entryNext = new int[capacity];
+        this.marks = new int[proxies.getCapacity()];
+        Arrays.fill(buckets, -1);
+    }
+
+    /**
+     * Get the width and height of a cell.
+     *
+     * @return the cell size
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The object is entered into the grid right away.
+     */
+    @Override
+    public void add(Object2D object) {
+        int id = proxies.add(object);
+        if (marks.length < proxies.getCapacity()) {
+            marks = Arrays.copyOf(marks, proxies.getCapacity());
+        }
+        insert(id);
+    }
+
+    @Override
+    public boolean remove(Object2D object) {
+        int id = proxies.idOf(object);
+        if (id < 0) return false;
+
+        unlink(id);
+        proxies.remove(object);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size();
+    }
+
+    @Override
+    public void update() {
+        int limit = proxies.getIdLimit();
+        if (buckets.length < 2 * proxies.size()) {
+            buckets = new int[tableSizeFor(2 * proxies.size())];
+        }
+        Arrays.fill(buckets, -1);
+        entryCount = 0;
+
+        for (int id = 0; id < limit; id++) {
+            if (proxies.objects[id] == null) continue;
+
+            proxies.refresh(id);
+            insert(id);
+        }
+    }
+
+    @Override
+    public int queryRect(float left, float bottom, float right, float top, List<Object2D> results) {
+        int stamp = nextStamp();
+        int found = 0;
+
+        int minX = cell(left), maxX = cell(right);
+        int minY = cell(bottom), maxY = cell(top);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                for (int e = buckets[hash(cx, cy)]; e >= 0; e = entryNext[e]) {
+                    int id = entryObject[e];
+                    if (marks[id] == stamp) continue;
+                    marks[id] = stamp;
+
+                    if (proxies.overlaps(id, left, bottom, right, top)) {
+                        results.add(proxies.objects[id]);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public int queryPoint(float x, float y, List<Object2D> results) {
+        int found = 0;
+
+        int cx = cell(x), cy = cell(y);
+        for (int e = buckets[hash(cx, cy)]; e >= 0; e = entryNext[e]) {
+            // Every object is entered into a cell at most once
+            if (entryCellX[e] != cx || entryCellY[e] != cy) continue;
+
+            int id = entryObject[e];
+            if (proxies.overlaps(id, x, y, x, y)) {
+                results.add(proxies.objects[id]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Two overlapping objects usually share several cells. The pair is only
+     * reported in the cell that holds the bottom left corner of the overlap.
+     */
+    @Override
+    public void findPairs(PairCallback callback) {
+        final ProxyTable proxies = this.proxies;
+
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            for (int e = buckets[bucket]; e >= 0; e = entryNext[e]) {
+                int a = entryObject[e];
+                int cx = entryCellX[e], cy = entryCellY[e];
+                for (int f = entryNext[e]; f >= 0; f = entryNext[f]) {
+                    int b = entryObject[f];
+                    if (entryCellX[f] != cx || entryCellY[f] != cy) continue;
+                    if (!proxies.overlaps(a, b)) continue;
+
+                    float overlapLeft = Math.max(proxies.left[a], proxies.left[b]);
+                    float overlapBottom = Math.max(proxies.bottom[a], proxies.bottom[b]);
+                    if (cell(overlapLeft) == cx && cell(overlapBottom) == cy) {
+                        callback.onPair(proxies.objects[a], proxies.objects[b]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Enters an object into all cells its box touches.
+     *
+     * @param id the id of the object
+     */
+    private void insert(int id) {
+        int minX = cell(proxies.left[id]), maxX = cell(proxies.right[id]);
+        int minY = cell(proxies.bottom[id]), maxY = cell(proxies.top[id]);
+        ensureEntryCapacity(entryCount + (maxX - minX + 1) * (maxY - minY + 1));
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                int bucket = hash(cx, cy);
+                int e = entryCount++;
+                entryObject[e] = id;
+                entryCellX[e] = cx;
+                entryCellY[e] = cy;
+                entryNext[e] = buckets[bucket];
+                buckets[bucket] = e;
+            }
+        }
+    }
+
+    /**
+     * Takes an object out of all cells its box touches. Its entries are left
+     * unused until the next update.
+     *
+     * @param id the id of the object
+     */
+    private void unlink(int id) {
+        int minX = cell(proxies.left[id]), maxX = cell(proxies.right[id]);
+        int minY = cell(proxies.bottom[id]), maxY = cell(proxies.top[id]);
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                int bucket = hash(cx, cy);
+                int previous = -1;
+                for (int e = buckets[bucket]; e >= 0; e = entryNext[e]) {
+                    if (entryObject[e] == id) {
+                        if (previous < 0) {
+                            buckets[bucket] = entryNext[e];
+                        } else {
+                            entryNext[previous] = entryNext[e];
+                        }
+                    } else {
+                        previous = e;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the cell containing a coordinate.
+     */
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    /**
+     * Get the bucket of a cell.
+     */
+    private int hash(int cx, int cy) {
+        int h = (cx * 73856093) ^ (cy * 19349663);
+        return (h ^ (h >>> 16)) & (buckets.length - 1);
+    }
+
+    /**
+     * Get a stamp no object is marked with yet.
+     */
+    private int nextStamp() {
+        if (++queryStamp == 0) {
+            Arrays.fill(marks, -1);
+            queryStamp = 1;
+        }
+        return queryStamp;
+    }
+
+    private void ensureEntryCapacity(int capacity) {
+        if (entryObject.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, entryObject.length * 2);
+        entryObject = Arrays.copyOf(entryObject, newCapacity);
+        entryCellX = Arrays.copyOf(entryCellX, newCapacity);
+        entryCellY = Arrays.copyOf(entryCellY, newCapacity);
+        entryNext = Arrays.copyOf(entryNext, newCapacity);
+    }
+
+    /**
+     * Get the smallest power of two that is at least the given size.
+     */
+    private static int tableSizeFor(int size) {
+        int n = 16;
+        while (n < size) n <<= 1;
+        return n;
+    }
+
+}
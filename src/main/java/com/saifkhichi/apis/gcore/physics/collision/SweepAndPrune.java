@@ -0,0 +1,426 @@
+package com.saifkhichi.apis.gcore.physics.collision;
+
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A broadphase that keeps the edges of all bounding boxes sorted along both
+ * axes, and tracks the overlapping pairs as the edges pass each other.
+ * <p>
+ * Bounding boxes overlap exactly when they overlap on both axes. When the left
+ * edge of one box passes the right edge of another while the lists are being
+ * sorted, the boxes may start to overlap; when a right edge passes a left edge,
+ * they stop overlapping. The set of overlapping pairs is therefore updated
+ * along with sorting, and never recomputed from scratch.
+ * <p>
+ * The lists are sorted with insertion sort. Objects usually move only a little
+ * from one tick to the next, so the lists are nearly sorted, and an update
+ * takes close to linear time.
+ * <p>
+ * Instead of the full set of pairs, a {@link PairListener} can be told only the
+ * pairs that were added or removed, once per update, which lets collision
+ * handling skip pairs that did not change.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class SweepAndPrune implements Broadphase {
+
+    /**
+     * The pair currently overlaps.
+     */
+    private static final int PRESENT = 1;
+
+    /**
+     * The pair has been reported to the listener as added.
+     */
+    private static final int KNOWN = 2;
+
+    /**
+     * The pair is in the list of pairs changed since the last update.
+     */
+    private static final int TOUCHED = 4;
+
+    private final ProxyTable proxies;
+
+    /**
+     * Edges along each axis, sorted by position. An edge is stored as the id
+     * of its object, shifted left by one, with the lowest bit set for the
+     * right (or top) edge.
+     */
+    private int[] edgesX, edgesY;
+    private int edgeCount = 0;
+
+    private final PairTable pairs;
+
+    /**
+     * Pairs that changed since the last update.
+     */
+    private long[] touched = new long[64];
+    private int touchedCount = 0;
+
+    /**
+     * Scratch space for the pairs of a removed object.
+     */
+    private long[] removed = new long[16];
+
+    /**
+     * The largest width and height of any box, to bound rectangle queries.
+     */
+    private float maxWidth = 0.0f, maxHeight = 0.0f;
+
+    private PairListener listener;
+
+    /**
+     * Creates an empty broadphase.
+     */
+    public SweepAndPrune() {
+        this(64);
+    }
+
+    /**
+     * Creates an empty broadphase with room for the given number of objects.
+     *
+     * @param capacity the initial number of objects
+     */
+    public SweepAndPrune(int capacity) {
+        proxies = new ProxyTable(capacity);
+        edgesX = new int[2 * proxies.getCapacity()];
+        edgesY = new int[2 * proxies.getCapacity()];
+        pairs = new PairTable(capacity);
+    }
+
+    /**
+     * Set the listener that is told about added and removed pairs.
+     *
+     * @param listener the listener, or null
+     */
+    public void setPairListener(PairListener listener) {
+        this.listener = listener;
+    }
+
+    public PairListener getPairListener() {
+        return listener;
+    }
+
+    /**
+     * Get the number of overlapping pairs.
+     *
+     * @return the number of pairs
+     */
+    public int getPairCount() {
+        int count = 0;
+        for (int slot = 0; slot < pairs.keys.length; slot++) {
+            if ((pairs.flags[slot] & PRESENT) != 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The pairs of the object are found right away, and are reported to the
+     * listener by the next update.
+     */
+    @Override
+    public void add(Object2D object) {
+        int id = proxies.add(object);
+        if (edgesX.length < 2 * proxies.getCapacity()) {
+            edgesX = Arrays.copyOf(edgesX, 2 * proxies.getCapacity());
+            edgesY = Arrays.copyOf(edgesY, 2 * proxies.getCapacity());
+        }
+
+        insertEdge(edgesX, id << 1, true);
+        insertEdge(edgesX, (id << 1) | 1, true);
+        insertEdge(edgesY, id << 1, false);
+        insertEdge(edgesY, (id << 1) | 1, false);
+        edgeCount += 2;
+
+        maxWidth = Math.max(maxWidth, proxies.right[id] - proxies.left[id]);
+        maxHeight = Math.max(maxHeight, proxies.top[id] - proxies.bottom[id]);
+
+        for (int i = 0; i < edgeCount; i++) {
+            int edge = edgesX[i];
+            int other = edge >> 1;
+            if ((edge & 1) == 0 && other != id && proxies.overlaps(id, other)) {
+                begin(id, other);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pairs of the object that were reported to the listener are reported as
+     * removed right away.
+     */
+    @Override
+    public boolean remove(Object2D object) {
+        int id = proxies.idOf(object);
+        if (id < 0) return false;
+
+        removeEdges(edgesX, id);
+        removeEdges(edgesY, id);
+        edgeCount -= 2;
+
+        // Collect the pairs first, because removing pairs moves others
+        int count = 0;
+        for (int slot = 0; slot < pairs.keys.length; slot++) {
+            long key = pairs.keys[slot];
+            if (key != PairTable.EMPTY && (PairTable.first(key) == id || PairTable.second(key) == id)) {
+                if (count == removed.length) removed = Arrays.copyOf(removed, count * 2);
+                removed[count++] = key;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            long key = removed[i];
+            int slot = pairs.find(key);
+            if ((pairs.flags[slot] & KNOWN) != 0 && listener != null) {
+                listener.onPairRemoved(proxies.objects[PairTable.first(key)], proxies.objects[PairTable.second(key)]);
+            }
+            pairs.removeAt(slot);
+        }
+
+        proxies.remove(object);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return proxies.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Afterwards, the pairs that were added or removed since the last update
+     * are reported to the listener.
+     */
+    @Override
+    public void update() {
+        final ProxyTable proxies = this.proxies;
+        int limit = proxies.getIdLimit();
+
+        float maxWidth = 0.0f, maxHeight = 0.0f;
+        for (int id = 0; id < limit; id++) {
+            if (proxies.objects[id] == null) continue;
+
+            proxies.refresh(id);
+            maxWidth = Math.max(maxWidth, proxies.right[id] - proxies.left[id]);
+            maxHeight = Math.max(maxHeight, proxies.top[id] - proxies.bottom[id]);
+        }
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+
+        sort(edgesX, true);
+        sort(edgesY, false);
+        reportChanges();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The query scans the sorted left edges between the left edge of the
+     * rectangle, less the width of the widest box, and its right edge.
+     */
+    @Override
+    public int queryRect(float left, float bottom, float right, float top, List<Object2D> results) {
+        // Use the axis on which the query covers fewer edges
+        boolean alongX = right - left + maxWidth <= top - bottom + maxHeight;
+        int[] edges = alongX ? edgesX : edgesY;
+        float from = alongX ? left - maxWidth : bottom - maxHeight;
+        float to = alongX ? right : top;
+
+        int found = 0;
+        for (int i = lowerBound(edges, alongX, from); i < edgeCount; i++) {
+            int edge = edges[i];
+            if (value(edge, alongX) > to) break;
+
+            int id = edge >> 1;
+            if ((edge & 1) == 0 && proxies.overlaps(id, left, bottom, right, top)) {
+                results.add(proxies.objects[id]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public int queryPoint(float x, float y, List<Object2D> results) {
+        return queryRect(x, y, x, y, results);
+    }
+
+    @Override
+    public void findPairs(PairCallback callback) {
+        final long[] keys = pairs.keys;
+        final byte[] flags = pairs.flags;
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if ((flags[slot] & PRESENT) == 0) continue;
+
+            long key = keys[slot];
+            callback.onPair(proxies.objects[PairTable.first(key)], proxies.objects[PairTable.second(key)]);
+        }
+    }
+
+    /**
+     * Sorts the edges along an axis with insertion sort, and updates the pairs
+     * whose edges pass each other.
+     */
+    private void sort(int[] edges, boolean alongX) {
+        final ProxyTable proxies = this.proxies;
+
+        for (int i = 1; i < edgeCount; i++) {
+            int edge = edges[i];
+            float value = value(edge, alongX);
+            boolean isMax = (edge & 1) != 0;
+            int id = edge >> 1;
+
+            int j = i - 1;
+            while (j >= 0 && before(value, isMax, edges[j], alongX)) {
+                int other = edges[j];
+                int otherId = other >> 1;
+                boolean otherIsMax = (other & 1) != 0;
+
+                if (id != otherId) {
+                    if (!isMax && otherIsMax) {
+                        // A left edge moves past a right edge
+                        if (proxies.overlaps(id, otherId)) begin(id, otherId);
+                    } else if (isMax && !otherIsMax) {
+                        // A right edge moves past a left edge
+                        end(id, otherId);
+                    }
+                }
+
+                edges[j + 1] = other;
+                j--;
+            }
+            edges[j + 1] = edge;
+        }
+    }
+
+    /**
+     * Tests whether an edge belongs before another. At the same position,
+     * left edges come before right edges, so boxes that touch overlap.
+     */
+    private boolean before(float value, boolean isMax, int other, boolean alongX) {
+        float otherValue = value(other, alongX);
+        return value < otherValue || (value == otherValue && !isMax && (other & 1) != 0);
+    }
+
+    private float value(int edge, boolean alongX) {
+        int id = edge >> 1;
+        if (alongX) {
+            return (edge & 1) == 0 ? proxies.left[id] : proxies.right[id];
+        } else {
+            return (edge & 1) == 0 ? proxies.bottom[id] : proxies.top[id];
+        }
+    }
+
+    /**
+     * Inserts an edge at its place in a sorted list.
+     */
+    private void insertEdge(int[] edges, int edge, boolean alongX) {
+        int count = edgeCount + (edge & 1);
+        float value = value(edge, alongX);
+        boolean isMax = (edge & 1) != 0;
+
+        int i = count;
+        while (i > 0 && before(value, isMax, edges[i - 1], alongX)) {
+            edges[i] = edges[i - 1];
+            i--;
+        }
+        edges[i] = edge;
+    }
+
+    /**
+     * Removes both edges of an object from a list.
+     */
+    private void removeEdges(int[] edges, int id) {
+        int to = 0;
+        for (int from = 0; from < edgeCount; from++) {
+            if (edges[from] >> 1 != id) {
+                edges[to++] = edges[from];
+            }
+        }
+    }
+
+    /**
+     * Finds the first edge at or after a position.
+     */
+    private int lowerBound(int[] edges, boolean alongX, float position) {
+        int low = 0, high = edgeCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (value(edges[middle], alongX) < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Marks two objects as overlapping.
+     */
+    private void begin(int a, int b) {
+        long key = PairTable.key(a, b);
+        int slot = pairs.insert(key);
+        pairs.flags[slot] |= PRESENT;
+        touch(slot, key);
+    }
+
+    /**
+     * Marks two objects as no longer overlapping.
+     */
+    private void end(int a, int b) {
+        long key = PairTable.key(a, b);
+        int slot = pairs.find(key);
+        if (slot < 0) return;
+
+        pairs.flags[slot] &= ~PRESENT;
+        touch(slot, key);
+    }
+
+    private void touch(int slot, long key) {
+        if ((pairs.flags[slot] & TOUCHED) != 0) return;
+
+        pairs.flags[slot] |= TOUCHED;
+        if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, touchedCount * 2);
+        }
+        touched[touchedCount++] = key;
+    }
+
+    /**
+     * Tells the listener about the pairs that changed, and drops pairs that no
+     * longer overlap.
+     */
+    private void reportChanges() {
+        for (int i = 0; i < touchedCount; i++) {
+            long key = touched[i];
+            int slot = pairs.find(key);
+            if (slot < 0) continue;
+
+            int flags = pairs.flags[slot];
+            Object2D a = proxies.objects[PairTable.first(key)];
+            Object2D b = proxies.objects[PairTable.second(key)];
+            if ((flags & PRESENT) != 0) {
+                pairs.flags[slot] = (byte) (PRESENT | KNOWN);
+                if ((flags & KNOWN) == 0 && listener != null) {
+                    listener.onPairAdded(a, b);
+                }
+            } else {
+                if ((flags & KNOWN) != 0 && listener != null) {
+                    listener.onPairRemoved(a, b);
+                }
+                pairs.removeAt(slot);
+            }
+        }
+        touchedCount = 0;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.saifkhichi.apis.gcore.physics.force;
+
+import com.saifkhichi.apis.gcore.physics.ForceAccumulator;
+import com.saifkhichi.apis.gcore.physics.ForceGenerator;
+
+/**
+ * Slows all bodies down, like air or water resistance.
+ * <p>
+ * The drag force opposes the velocity of a body. Its linear part is
+ * proportional to the speed, and dominates at low speeds; its quadratic part
+ * is proportional to the square of the speed, and dominates at high speeds,
+ * giving falling bodies a terminal velocity.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class Drag implements ForceGenerator {
+
+    private float linear, quadratic;
+
+    /**
+     * Creates a drag field.
+     *
+     * @param linear    the linear drag coefficient
+     * @param quadratic the quadratic drag coefficient
+     */
+    public Drag(float linear, float quadratic) {
+        this.linear = linear;
+        this.quadratic = quadratic;
+    }
+
+    public float getLinear() {
+        return linear;
+    }
+
+    public void setLinear(float linear) {
+        this.linear = linear;
+    }
+
+    public float getQuadratic() {
+        return quadratic;
+    }
+
+    public void setQuadratic(float quadratic) {
+        this.quadratic = quadratic;
+    }
+
+    @Override
+    public void apply(ForceAccumulator forces) {
+        final float linear = this.linear, quadratic = this.quadratic;
+        for (int i = 0, n = forces.size(); i < n; i++) {
+            if (!forces.isActive(i)) continue;
+
+            float vx = forces.getVelocityX(i), vy = forces.getVelocityY(i);
+            float speed = (float) Math.sqrt(vx * vx + vy * vy);
+            float k = linear + quadratic * speed;
+            forces.add(i, -k * vx, -k * vy);
+        }
+    }
+
+}
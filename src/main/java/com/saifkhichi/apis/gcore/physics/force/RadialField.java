@@ -0,0 +1,93 @@
+package com.saifkhichi.apis.gcore.physics.force;
+
+import com.saifkhichi.apis.gcore.physics.ForceAccumulator;
+import com.saifkhichi.apis.gcore.physics.ForceGenerator;
+
+/**
+ * Pulls bodies towards a point, or pushes them away from it, e.g. a black
+ * hole, a magnet or an explosion.
+ * <p>
+ * Bodies within the radius of the field are accelerated towards its center
+ * with a strength that falls off linearly to zero at the radius. A negative
+ * strength pushes bodies away instead. Like gravity, the acceleration does not
+ * depend on the mass of a body.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class RadialField implements ForceGenerator {
+
+    private float x, y;
+    private float radius;
+    private float strength;
+
+    /**
+     * Creates a field.
+     *
+     * @param x        x coordinate of the center
+     * @param y        y coordinate of the center
+     * @param radius   distance from the center beyond which the field has no
+     *                 effect
+     * @param strength acceleration at the center, negative to push bodies
+     *                 away
+     */
+    public RadialField(float x, float y, float radius, float strength) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.strength = strength;
+    }
+
+    /**
+     * Moves the center of the field.
+     *
+     * @param x x coordinate of the center
+     * @param y y coordinate of the center
+     */
+    public void setCenter(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    public float getStrength() {
+        return strength;
+    }
+
+    public void setStrength(float strength) {
+        this.strength = strength;
+    }
+
+    @Override
+    public void apply(ForceAccumulator forces) {
+        final float cx = x, cy = y, radius = this.radius, strength = this.strength;
+        final float limit = radius * radius;
+        for (int i = 0, n = forces.size(); i < n; i++) {
+            if (!forces.isActive(i)) continue;
+
+            float dx = cx - forces.getX(i), dy = cy - forces.getY(i);
+            float distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared >= limit || distanceSquared == 0) continue;
+
+            // Unit direction times the strength, falling off with distance
+            float distance = (float) Math.sqrt(distanceSquared);
+            float scale = strength * (1.0f - distance / radius) / distance;
+            forces.addAcceleration(i, dx * scale, dy * scale);
+        }
+    }
+
+}
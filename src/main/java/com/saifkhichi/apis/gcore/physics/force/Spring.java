@@ -0,0 +1,108 @@
+package com.saifkhichi.apis.gcore.physics.force;
+
+import com.saifkhichi.apis.gcore.physics.ForceAccumulator;
+import com.saifkhichi.apis.gcore.physics.ForceGenerator;
+import com.saifkhichi.apis.gcore.physics.RigidBody;
+
+/**
+ * A damped spring between the centers of two bodies.
+ * <p>
+ * The spring pulls the bodies together when it is longer than its rest
+ * length, and pushes them apart when it is shorter, with a force proportional
+ * to the difference (Hooke's law). Damping opposes the speed at which the
+ * bodies approach or separate, so the spring comes to rest.
+ * <p>
+ * A stiff spring needs small time steps to stay stable; use the
+ * {@link com.saifkhichi.apis.gcore.physics.PhysicsWorld#setSubSteps(int)
+ * sub-steps} of the world if it oscillates wildly.
+ * <p>
+ * Bodies joined by a spring fall asleep together, and a sleeping body is
+ * woken up when the body at the other end pulls on it.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class Spring implements ForceGenerator {
+
+    private final RigidBody bodyA, bodyB;
+    private float restLength;
+    private float stiffness;
+    private float damping;
+
+    /**
+     * Creates a spring.
+     *
+     * @param bodyA      the first body
+     * @param bodyB      the second body
+     * @param restLength the length at which the spring exerts no force
+     * @param stiffness  the force per unit of stretch
+     * @param damping    the force per unit of relative speed
+     */
+    public Spring(RigidBody bodyA, RigidBody bodyB, float restLength, float stiffness, float damping) {
+        if (bodyA == null || bodyB == null) {
+            throw new NullPointerException("body == null");
+        }
+        this.bodyA = bodyA;
+        this.bodyB = bodyB;
+        this.restLength = restLength;
+        this.stiffness = stiffness;
+        this.damping = damping;
+    }
+
+    public RigidBody getBodyA() {
+        return bodyA;
+    }
+
+    public RigidBody getBodyB() {
+        return bodyB;
+    }
+
+    public float getRestLength() {
+        return restLength;
+    }
+
+    public void setRestLength(float restLength) {
+        this.restLength = restLength;
+    }
+
+    public float getStiffness() {
+        return stiffness;
+    }
+
+    public void setStiffness(float stiffness) {
+        this.stiffness = stiffness;
+    }
+
+    public float getDamping() {
+        return damping;
+    }
+
+    public void setDamping(float damping) {
+        this.damping = damping;
+    }
+
+    @Override
+    public void apply(ForceAccumulator forces) {
+        int a = forces.indexOf(bodyA), b = forces.indexOf(bodyB);
+        if (a < 0 || b < 0) return;
+        if (!forces.isActive(a) && !forces.isActive(b)) return;
+        forces.link(a, b);
+
+        float dx = forces.getX(b) - forces.getX(a), dy = forces.getY(b) - forces.getY(a);
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) return;
+
+        float nx = dx / length, ny = dy / length;
+        float approach = (forces.getVelocityX(b) - forces.getVelocityX(a)) * nx
+                + (forces.getVelocityY(b) - forces.getVelocityY(a)) * ny;
+        float magnitude = stiffness * (length - restLength) + damping * approach;
+        if (magnitude == 0) return;
+
+        // A sleeping body that the other body pulls on wakes up; static
+        // bodies ignore the force
+        forces.wake(a);
+        forces.wake(b);
+        forces.add(a, magnitude * nx, magnitude * ny);
+        forces.add(b, -magnitude * nx, -magnitude * ny);
+    }
+
+}
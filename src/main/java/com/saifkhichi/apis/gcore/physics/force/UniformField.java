@@ -0,0 +1,59 @@
+package com.saifkhichi.apis.gcore.physics.force;
+
+import com.saifkhichi.apis.gcore.physics.ForceAccumulator;
+import com.saifkhichi.apis.gcore.physics.ForceGenerator;
+
+/**
+ * A field that accelerates all bodies at the same rate, whatever their mass,
+ * like gravity.
+ * <p>
+ * Unlike {@link com.saifkhichi.apis.gcore.physics.Physics#GRAVITY}, the
+ * direction and strength of the field can be changed at any time, e.g. for
+ * levels with sideways or reversed gravity.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class UniformField implements ForceGenerator {
+
+    private float accelerationX, accelerationY;
+
+    /**
+     * Creates a field.
+     *
+     * @param accelerationX the x component of the acceleration
+     * @param accelerationY the y component of the acceleration
+     */
+    public UniformField(float accelerationX, float accelerationY) {
+        set(accelerationX, accelerationY);
+    }
+
+    /**
+     * Set the acceleration of the field.
+     *
+     * @param accelerationX the x component of the acceleration
+     * @param accelerationY the y component of the acceleration
+     */
+    public void set(float accelerationX, float accelerationY) {
+        this.accelerationX = accelerationX;
+        this.accelerationY = accelerationY;
+    }
+
+    public float getAccelerationX() {
+        return accelerationX;
+    }
+
+    public float getAccelerationY() {
+        return accelerationY;
+    }
+
+    @Override
+    public void apply(ForceAccumulator forces) {
+        final float ax = accelerationX, ay = accelerationY;
+        for (int i = 0, n = forces.size(); i < n; i++) {
+            if (forces.isActive(i)) {
+                forces.addAcceleration(i, ax, ay);
+            }
+        }
+    }
+
+}
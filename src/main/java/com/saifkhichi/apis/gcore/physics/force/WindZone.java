@@ -0,0 +1,95 @@
+package com.saifkhichi.apis.gcore.physics.force;
+
+import com.saifkhichi.apis.gcore.physics.ForceAccumulator;
+import com.saifkhichi.apis.gcore.physics.ForceGenerator;
+
+/**
+ * Blows on the bodies inside a rectangle, e.g. a fan or an updraft.
+ * <p>
+ * The wind pushes every body whose center is in the zone towards the velocity
+ * of the wind, with a force proportional to the difference between the two
+ * velocities. A body carried along at the speed of the wind feels no force.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public strictfp class WindZone implements ForceGenerator {
+
+    private float left, bottom, right, top;
+    private float velocityX, velocityY;
+    private float coefficient;
+
+    /**
+     * Creates a wind zone.
+     *
+     * @param left        left edge of the zone
+     * @param bottom      bottom edge of the zone
+     * @param right       right edge of the zone
+     * @param top         top edge of the zone
+     * @param velocityX   x component of the velocity of the wind
+     * @param velocityY   y component of the velocity of the wind
+     * @param coefficient how strongly the wind drags bodies along
+     */
+    public WindZone(float left, float bottom, float right, float top,
+                    float velocityX, float velocityY, float coefficient) {
+        setBounds(left, bottom, right, top);
+        setVelocity(velocityX, velocityY);
+        this.coefficient = coefficient;
+    }
+
+    /**
+     * Moves or resizes the zone.
+     *
+     * @param left   left edge of the zone
+     * @param bottom bottom edge of the zone
+     * @param right  right edge of the zone
+     * @param top    top edge of the zone
+     */
+    public void setBounds(float left, float bottom, float right, float top) {
+        this.left = left;
+        this.bottom = bottom;
+        this.right = right;
+        this.top = top;
+    }
+
+    /**
+     * Set the velocity of the wind.
+     *
+     * @param velocityX x component of the velocity
+     * @param velocityY y component of the velocity
+     */
+    public void setVelocity(float velocityX, float velocityY) {
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+    }
+
+    public float getVelocityX() {
+        return velocityX;
+    }
+
+    public float getVelocityY() {
+        return velocityY;
+    }
+
+    public float getCoefficient() {
+        return coefficient;
+    }
+
+    public void setCoefficient(float coefficient) {
+        this.coefficient = coefficient;
+    }
+
+    @Override
+    public void apply(ForceAccumulator forces) {
+        final float left = this.left, bottom = this.bottom, right = this.right, top = this.top;
+        final float wx = velocityX, wy = velocityY, k = coefficient;
+        for (int i = 0, n = forces.size(); i < n; i++) {
+            if (!forces.isActive(i)) continue;
+
+            float x = forces.getX(i), y = forces.getY(i);
+            if (x < left || x > right || y < bottom || y > top) continue;
+
+            forces.add(i, k * (wx - forces.getVelocityX(i)), k * (wy - forces.getVelocityY(i)));
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.saifkhichi.apis.gcore.pool;
+
+import com.saifkhichi.apis.gcore.metrics.PoolStats;
+
+/**
+ * A bounded pool of reusable objects, e.g. bullets, particles or pickups that
+ * are spawned and despawned many times per second.
+ * <p>
+ * {@link #obtain()} hands out an object from the pool, or creates one with the
+ * {@link PoolFactory} of the pool if it is empty. {@link #free(Object)} resets
+ * the object with the factory and keeps it for later, unless the pool already
+ * holds as many objects as its capacity, in which case the object is left to
+ * the garbage collector. Once the pool has warmed up, spawning and despawning
+ * objects does not allocate.
+ * <p>
+ * An object must not be used after it has been freed, and must not be freed
+ * twice.
+ *
+ * @param <T> type of the pooled objects
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see SharedPool
+ * @see ThreadLocalPool
+ */
+public abstract class ObjectPool<T> {
+
+    private final PoolFactory<T> factory;
+    private final int capacity;
+    private final PoolStats stats = new PoolStats();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param factory  the factory creating and resetting the objects
+     * @param capacity the largest number of objects the pool keeps
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    protected ObjectPool(PoolFactory<T> factory, int capacity) {
+        if (factory == null) {
+            throw new NullPointerException("factory == null");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.factory = factory;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Takes an object from the pool, or creates one if the pool is empty.
+     *
+     * @return a reset object
+     */
+    public final T obtain() {
+        T object = poll();
+        if (object != null) {
+            stats.recordHit();
+            return object;
+        }
+        stats.recordMiss();
+        return factory.create();
+    }
+
+    /**
+     * Resets an object and returns it to the pool.
+     *
+     * @param object the object, which must not be used afterwards
+     * @return true if the pool kept the object, false if it was full
+     */
+    public final boolean free(T object) {
+        if (object == null) {
+            throw new NullPointerException("object == null");
+        }
+        factory.reset(object);
+        if (offer(object)) {
+            stats.recordReturn();
+            return true;
+        }
+        stats.recordDrop();
+        return false;
+    }
+
+    /**
+     * Creates objects until the pool holds the given number, so that the
+     * first objects obtained do not allocate either.
+     *
+     * @param count the number of objects the pool should hold
+     */
+    public void fill(int count) {
+        count = Math.min(count, capacity);
+        while (size() < count && offer(factory.create())) {
+            // keep going
+        }
+    }
+
+    /**
+     * Get the largest number of objects the pool keeps.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the usage statistics of the pool.
+     *
+     * @return the statistics
+     */
+    public PoolStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Get the number of objects in the pool, as seen by the calling thread.
+     *
+     * @return the number of objects ready to be obtained
+     */
+    public abstract int size();
+
+    /**
+     * Takes an object from the pool.
+     *
+     * @return an object, or null if the pool is empty
+     */
+    protected abstract T poll();
+
+    /**
+     * Puts a reset object into the pool.
+     *
+     * @param object the object
+     * @return true if the object was kept, false if the pool is full
+     */
+    protected abstract boolean offer(T object);
+
+}
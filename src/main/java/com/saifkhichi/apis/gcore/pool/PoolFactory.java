@@ -0,0 +1,31 @@
+package com.saifkhichi.apis.gcore.pool;
+
+/**
+ * Creates and resets the objects of an {@link ObjectPool}.
+ *
+ * @param <T> type of the pooled objects
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public interface PoolFactory<T> {
+
+    /**
+     * Creates a new object, when the pool is empty.
+     *
+     * @return the new object
+     */
+    T create();
+
+    /**
+     * Resets an object returned to the pool, so that it can be handed out
+     * again as if it were new.
+     * <p>
+     * This should also let go of anything the object refers to, so the pool
+     * does not keep it alive, e.g. remove a
+     * {@link com.saifkhichi.apis.gcore.physics.RigidBody} from its world or
+     * clear the view of a {@link com.saifkhichi.apis.gcore.Sprite}.
+     *
+     * @param object the returned object
+     */
+    void reset(T object);
+
+}
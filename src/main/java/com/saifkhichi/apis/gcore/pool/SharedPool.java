@@ -0,0 +1,95 @@
+package com.saifkhichi.apis.gcore.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An object pool that can be used from any number of threads at once,
+ * without locks.
+ * <p>
+ * Objects are kept in a fixed array of slots. A thread first reserves an
+ * object (or a free slot) by updating the size of the pool with a
+ * compare-and-set, and then claims a slot with another one, starting at a
+ * slot chosen by the thread so that threads rarely compete for the same
+ * slots. Neither operation allocates.
+ * <p>
+ * Objects can be freed by another thread than the one that obtained them.
+ *
+ * @param <T> type of the pooled objects
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class SharedPool<T> extends ObjectPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * Number of objects in the pool, including objects that are being put in
+     * and excluding objects that are being taken out.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param factory  the factory creating and resetting the objects
+     * @param capacity the largest number of objects the pool keeps
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public SharedPool(PoolFactory<T> factory, int capacity) {
+        super(factory, capacity);
+        this.slots = new AtomicReferenceArray<T>(capacity);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    protected T poll() {
+        // Reserve one of the objects
+        int n;
+        do {
+            n = size.get();
+            if (n == 0) return null;
+        } while (!size.compareAndSet(n, n - 1));
+
+        // Claim it. It may still be on its way in, so keep looking until then.
+        int length = slots.length();
+        for (int i = start(length); ; i = i + 1 == length ? 0 : i + 1) {
+            if (slots.get(i) != null) {
+                T object = slots.getAndSet(i, null);
+                if (object != null) return object;
+            }
+        }
+    }
+
+    @Override
+    protected boolean offer(T object) {
+        // Reserve one of the free slots
+        int capacity = getCapacity();
+        int n;
+        do {
+            n = size.get();
+            if (n == capacity) return false;
+        } while (!size.compareAndSet(n, n + 1));
+
+        // Claim it. It may still be emptied by another thread, so keep
+        // looking until then.
+        int length = slots.length();
+        for (int i = start(length); ; i = i + 1 == length ? 0 : i + 1) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, object)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Get the slot the calling thread starts looking at.
+     */
+    private static int start(int length) {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) ((h >>> 32) % length);
+    }
+
+}
@@ -0,0 +1,174 @@
+package com.saifkhichi.apis.gcore.render;
+
+import com.saifkhichi.apis.gcore.AnimatedView;
+import com.saifkhichi.apis.gcore.Animation;
+import com.saifkhichi.apis.gcore.physics.Object2D;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the renderable state of a game from the update thread to the render
+ * thread.
+ * <p>
+ * Objects are registered with {@link #track(Object2D)}. After every update the
+ * update thread calls {@link #publish(long)}, which copies the position of
+ * each tracked object (and the frame of each animation) into a snapshot. The
+ * render thread calls {@link #acquire()} to get the most recent snapshot.
+ * <p>
+ * Snapshots are triple-buffered: the update thread always writes into a
+ * buffer of its own, the render thread always reads from a buffer of its own,
+ * and the two are exchanged through a third buffer with a single atomic swap.
+ * Neither thread ever waits for the other, and nothing is allocated once the
+ * buffers are large enough for all tracked objects.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class RenderState {
+
+    /**
+     * Bit set on {@link #shared} when the shared buffer holds a snapshot that
+     * the render thread has not seen yet.
+     */
+    private static final int FRESH = 4;
+
+    /**
+     * Mask to extract the buffer index from {@link #shared}.
+     */
+    private static final int INDEX = 3;
+
+    private final StateSnapshot[] buffers = {
+            new StateSnapshot(), new StateSnapshot(), new StateSnapshot()
+    };
+
+    /**
+     * Index of the buffer exchanged between the two threads, and the
+     * {@link #FRESH} bit.
+     */
+    private final AtomicInteger shared = new AtomicInteger(1);
+
+    /**
+     * Index of the buffer being written by the update thread.
+     */
+    private int back = 0;
+
+    /**
+     * Index of the buffer being read by the render thread.
+     */
+    private int front = 2;
+
+    /**
+     * Index of the buffer written by the last call to {@link #publish(long)}.
+     * Only used by the update thread.
+     */
+    private int lastPublished = 1;
+
+    /**
+     * Objects whose state is captured in snapshots, indexed by slot.
+     */
+    private final ArrayList<Object2D> objects = new ArrayList<>();
+
+    /**
+     * Starts capturing the state of an object in snapshots.
+     * <p>
+     * This method must be called from the update thread.
+     *
+     * @param object the object to track
+     * @return slot of the object in snapshots
+     */
+    public int track(Object2D object) {
+        if (object == null) {
+            throw new NullPointerException("Object cannot be null");
+        }
+
+        objects.add(object);
+        return objects.size() - 1;
+    }
+
+    /**
+     * Stops capturing the state of all objects.
+     * <p>
+     * This method must be called from the update thread.
+     */
+    public void clear() {
+        objects.clear();
+    }
+
+    /**
+     * Get the number of tracked objects.
+     *
+     * @return the number of slots in snapshots
+     */
+    public int size() {
+        return objects.size();
+    }
+
+    /**
+     * Captures the state of all tracked objects and makes it available to the
+     * render thread.
+     * <p>
+     * This method must be called from the update thread.
+     *
+     * @param tick number of updates run so far
+     */
+    public void publish(long tick) {
+        StateSnapshot last = buffers[lastPublished];
+        StateSnapshot snapshot = buffers[back];
+
+        int size = objects.size();
+        snapshot.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            Object2D object = objects.get(i);
+            float x = object.getX();
+            float y = object.getY();
+            snapshot.x[i] = x;
+            snapshot.y[i] = y;
+            if (i < last.size) {
+                snapshot.previousX[i] = last.x[i];
+                snapshot.previousY[i] = last.y[i];
+            } else {
+                snapshot.previousX[i] = x;
+                snapshot.previousY[i] = y;
+            }
+            snapshot.frame[i] = frameOf(object);
+        }
+        snapshot.size = size;
+        snapshot.tick = tick;
+        snapshot.publishTime = System.nanoTime();
+
+        lastPublished = back;
+        back = shared.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Get the most recent snapshot.
+     * <p>
+     * This method must be called from the render thread. The returned snapshot
+     * stays valid until the next call to this method.
+     *
+     * @return the latest published snapshot
+     */
+    public StateSnapshot acquire() {
+        if ((shared.get() & FRESH) != 0) {
+            front = shared.getAndSet(front) & INDEX;
+        }
+        return buffers[front];
+    }
+
+    /**
+     * Get the animation frame index of an object.
+     *
+     * @param object a tracked object
+     * @return index of the current frame, or -1 if the object is not animated
+     */
+    private static int frameOf(Object2D object) {
+        if (object instanceof Animation) {
+            return ((Animation) object).getCurrentFrame();
+        } else if (object instanceof AnimatedView) {
+            Animation animation = ((AnimatedView) object).getView();
+            return animation != null ? animation.getCurrentFrame() : -1;
+        }
+        return -1;
+    }
+
+}
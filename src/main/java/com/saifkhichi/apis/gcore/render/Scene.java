@@ -1,6 +1,7 @@
 package com.saifkhichi.apis.gcore.render;
 
 import com.saifkhichi.apis.gcore.BaseGame;
+import com.saifkhichi.apis.gcore.InputEvent;
 
 public abstract class Scene implements SceneCallbacks {
 
@@ -18,4 +19,30 @@ public abstract class Scene implements SceneCallbacks {
         this.game = game;
     }
 
+    /**
+     * Handles an input event submitted to the game.
+     * <p>
+     * Called on the loop thread, right before the next update. Does nothing
+     * by default.
+     *
+     * @param event the submitted event
+     */
+    public void onInput(InputEvent event) {
+        // do nothing
+    }
+
+    /**
+     * Draws the scene with an interpolation factor.
+     * <p>
+     * Called instead of {@link #onDraw()} when the game uses a fixed update
+     * step. Scenes that blend between their previous and current state should
+     * override this method; by default it simply calls {@link #onDraw()}.
+     *
+     * @param interpolation fraction of an update interval elapsed since the
+     *                      last update, in the range [0, 1)
+     */
+    public void onDraw(float interpolation) {
+        onDraw();
+    }
+
 }
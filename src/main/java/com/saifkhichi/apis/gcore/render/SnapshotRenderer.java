@@ -0,0 +1,25 @@
+package com.saifkhichi.apis.gcore.render;
+
+/**
+ * A scene that can be drawn on a separate render thread.
+ * <p>
+ * A game only draws on a render thread when all of its scenes implement this
+ * interface, because the other drawing callbacks of a scene read the live
+ * state of the game, which the update thread keeps modifying at the same
+ * time. Implementations should only read state from the snapshot.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ * @see com.saifkhichi.apis.gcore.BaseGame#setThreadedRendering(boolean)
+ */
+public interface SnapshotRenderer {
+
+    /**
+     * Draws the scene from a snapshot on the render thread.
+     *
+     * @param snapshot      the latest snapshot published by the game loop
+     * @param interpolation fraction of an update interval elapsed since the
+     *                      snapshot was published, in the range [0, 1]
+     */
+    void onDraw(StateSnapshot snapshot, float interpolation);
+
+}
@@ -0,0 +1,162 @@
+package com.saifkhichi.apis.gcore.render;
+
+import java.util.Arrays;
+
+/**
+ * A snapshot of the renderable state of a game after an update.
+ * <p>
+ * A snapshot holds the positions of all objects tracked by a
+ * {@link RenderState} as they were after the last two updates, and the frame
+ * index of tracked animations. Objects are identified by the slot returned
+ * from {@link RenderState#track(com.saifkhichi.apis.gcore.physics.Object2D)}.
+ * <p>
+ * Snapshots are reused by the render state. A snapshot returned from
+ * {@link RenderState#acquire()} must only be read by the render thread, and
+ * only until the next call to {@code acquire()}.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public final class StateSnapshot {
+
+    /**
+     * Number of updates the game had run when this snapshot was taken.
+     */
+    long tick = -1;
+
+    /**
+     * Time (from {@link System#nanoTime()}) when this snapshot was published.
+     */
+    long publishTime;
+
+    /**
+     * Number of tracked objects in this snapshot.
+     */
+    int size;
+
+    float[] x = new float[0];
+    float[] y = new float[0];
+    float[] previousX = new float[0];
+    float[] previousY = new float[0];
+    int[] frame = new int[0];
+
+    StateSnapshot() {
+    }
+
+    /**
+     * Makes sure this snapshot can hold the given number of objects.
+     *
+     * @param capacity the required number of slots
+     */
+    void ensureCapacity(int capacity) {
+        if (x.length >= capacity) return;
+
+        int newCapacity = Math.max(capacity, x.length * 2);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        previousX = Arrays.copyOf(previousX, newCapacity);
+        previousY = Arrays.copyOf(previousY, newCapacity);
+        frame = Arrays.copyOf(frame, newCapacity);
+    }
+
+    /**
+     * Get the number of updates the game had run when this snapshot was taken.
+     *
+     * @return the tick of this snapshot, or -1 if nothing was published yet
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Get the time when this snapshot was published.
+     *
+     * @return the publish time in nanoseconds, from {@link System#nanoTime()}
+     */
+    public long getPublishTime() {
+        return publishTime;
+    }
+
+    /**
+     * Get the number of slots in this snapshot.
+     *
+     * @return the number of tracked objects
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the x coordinate of an object after the last update.
+     *
+     * @param slot slot of the object
+     * @return the x coordinate
+     */
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * Get the y coordinate of an object after the last update.
+     *
+     * @param slot slot of the object
+     * @return the y coordinate
+     */
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * Get the x coordinate of an object after the update before the last one.
+     *
+     * @param slot slot of the object
+     * @return the previous x coordinate
+     */
+    public float getPreviousX(int slot) {
+        return previousX[slot];
+    }
+
+    /**
+     * Get the y coordinate of an object after the update before the last one.
+     *
+     * @param slot slot of the object
+     * @return the previous y coordinate
+     */
+    public float getPreviousY(int slot) {
+        return previousY[slot];
+    }
+
+    /**
+     * Get the x coordinate of an object blended between the last two updates.
+     *
+     * @param slot          slot of the object
+     * @param interpolation blend factor, 0 for the previous and 1 for the
+     *                      current position
+     * @return the interpolated x coordinate
+     */
+    public float getX(int slot, float interpolation) {
+        return previousX[slot] + (x[slot] - previousX[slot]) * interpolation;
+    }
+
+    /**
+     * Get the y coordinate of an object blended between the last two updates.
+     *
+     * @param slot          slot of the object
+     * @param interpolation blend factor, 0 for the previous and 1 for the
+     *                      current position
+     * @return the interpolated y coordinate
+     */
+    public float getY(int slot, float interpolation) {
+        return previousY[slot] + (y[slot] - previousY[slot]) * interpolation;
+    }
+
+    /**
+     * Get the animation frame index of an object.
+     *
+     * @param slot slot of the object
+     * @return the current frame index, or -1 if the object is not animated
+     */
+    public int getFrame(int slot) {
+        return frame[slot];
+    }
+
+}
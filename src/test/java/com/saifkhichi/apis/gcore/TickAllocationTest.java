@@ -0,0 +1,168 @@
+package com.saifkhichi.apis.gcore;
+
+import com.saifkhichi.apis.gcore.physics.BoundingBox;
+import com.saifkhichi.apis.gcore.physics.Object2D;
+import com.saifkhichi.apis.gcore.physics.PhysicsWorld;
+import com.saifkhichi.apis.gcore.physics.Point2D;
+import com.saifkhichi.apis.gcore.physics.PolarVector;
+import com.saifkhichi.apis.gcore.physics.RigidBody;
+import com.saifkhichi.apis.gcore.physics.Vector2D;
+import com.saifkhichi.apis.gcore.physics.collision.SpatialHashGrid;
+import com.saifkhichi.apis.gcore.render.Scene;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that a full tick of a game allocates nothing once the game has
+ * warmed up, using the per-thread allocation counter of the JVM.
+ * <p>
+ * The scene of the test game exercises the allocation-free math and geometry
+ * APIs, and steps a physics world with collisions, every tick.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class TickAllocationTest {
+
+    /**
+     * Ticks run before measuring, so that all code on the tick path has been
+     * compiled.
+     */
+    private static final int WARM_UP_TICKS = 20000;
+
+    /**
+     * Ticks measured.
+     */
+    private static final int MEASURED_TICKS = 1000;
+
+    private static final long TICK_MILLIS = 16;
+
+    @Test
+    public void steadyStateTickAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long thread = Thread.currentThread().getId();
+
+        TestGame game = new TestGame();
+        game.prepareForStepping();
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            game.runTick(TICK_MILLIS);
+        }
+
+        // Reading the counter may allocate by itself, so measure that first
+        // and leave it out of the result
+        long start = threads.getThreadAllocatedBytes(thread);
+        long overhead = threads.getThreadAllocatedBytes(thread) - start;
+
+        start = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            game.runTick(TICK_MILLIS);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - start - overhead;
+
+        assertEquals("Bytes allocated by " + MEASURED_TICKS + " ticks", 0, allocated);
+    }
+
+    /**
+     * Get the allocation counter of the JVM, or skips the test if the JVM
+     * does not count allocations per thread.
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static class TestGame extends BaseGame {
+
+        TestGame() {
+            super(60);
+        }
+
+        @Override
+        protected List<Scene> getScenes() {
+            return Arrays.<Scene>asList(new TestScene(this));
+        }
+
+        @Override
+        protected Class<? extends Scene> getInitialScene() {
+            return TestScene.class;
+        }
+
+        @Override
+        public void onStart() {
+        }
+
+        @Override
+        public void onPaused() {
+        }
+
+        @Override
+        public void onResume() {
+        }
+
+        @Override
+        public void onOver() {
+        }
+
+    }
+
+    private static class TestScene extends Scene {
+
+        private final PhysicsWorld world = new PhysicsWorld();
+        private final Object2D sprite = new Object2D(8, 8, 0, 0);
+        private final BoundingBox box = new BoundingBox();
+        private final PolarVector heading = new PolarVector(2, 30);
+        private final PolarVector turn = new PolarVector(1, 60);
+        private final Vector2D cartesian = new Vector2D();
+        private final Point2D target = new Point2D(10, 10);
+
+        TestScene(BaseGame game) {
+            super(game);
+            world.setBroadphase(new SpatialHashGrid(8));
+            world.setSleepingEnabled(false);
+            for (int i = 0; i < 100; i++) {
+                RigidBody body = new RigidBody(2, 2, i % 10 * 3.0f, i / 10 * 3.0f, 1.0f);
+                body.setGravitational(true);
+                world.add(body);
+            }
+            world.add(new RigidBody(100, 2, 15.0f, -5.0f, 0.0f));
+        }
+
+        @Override
+        public void onStart() {
+        }
+
+        @Override
+        public void onUpdate(long elapsedTime) {
+            world.update(elapsedTime);
+
+            heading.add(turn);
+            heading.multiply(0.5f);
+            heading.toCartesian(cartesian);
+            cartesian.toPolar(turn);
+            sprite.translate(cartesian.getX() * 0.01f, cartesian.getY() * 0.01f);
+            sprite.getBoundingBox(box);
+            target.distanceSquared(sprite.getX(), sprite.getY());
+        }
+
+        @Override
+        public void onDraw() {
+        }
+
+        @Override
+        public void onStop() {
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.saifkhichi.apis.gcore.physics;
+
+import com.saifkhichi.apis.gcore.physics.collision.SpatialHashGrid;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that bullets are stopped by bodies where they are during the step,
+ * not where the broadphase saw them last.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class ContinuousCollisionTest {
+
+    /**
+     * A step in which a bullet at 6000 units per second moves 100 units.
+     */
+    private static final float STEP = 1.0f / 60.0f;
+
+    private PhysicsWorld world;
+    private RigidBody bullet;
+
+    @Before
+    public void setUp() {
+        world = new PhysicsWorld();
+        world.setBroadphase(new SpatialHashGrid(4));
+
+        bullet = new RigidBody(1, 1, 0.0f, 0.0f, 1.0f);
+        bullet.setBullet(true);
+        world.add(bullet);
+    }
+
+    @Test
+    public void bulletStopsAtWall() {
+        world.add(new RigidBody(2, 20, 50.0f, 0.0f, 0.0f));
+        world.step(STEP);
+
+        fire();
+        assertEquals(48.5f, bullet.getX(), 0.01f);
+    }
+
+    @Test
+    public void bulletStopsAtMovedWall() {
+        RigidBody wall = new RigidBody(2, 20, 500.0f, 0.0f, 0.0f);
+        world.add(wall);
+        world.step(STEP);
+
+        wall.setX(50.0f);
+        fire();
+        assertEquals(48.5f, bullet.getX(), 0.01f);
+    }
+
+    @Test
+    public void bulletStopsAtMovingBody() {
+        RigidBody target = new RigidBody(2, 20, 500.0f, 0.0f, 1000.0f);
+        world.add(target);
+        world.step(STEP);
+
+        // Moves the target to x = 50 in one step
+        target.velocity.setX(-450.0f / STEP);
+        fire();
+        assertEquals(48.5f, bullet.getX(), 0.01f);
+    }
+
+    private void fire() {
+        bullet.velocity.setX(100.0f / STEP);
+        world.step(STEP);
+    }
+
+}
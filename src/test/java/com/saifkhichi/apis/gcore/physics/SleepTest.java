@@ -0,0 +1,66 @@
+package com.saifkhichi.apis.gcore.physics;
+
+import com.saifkhichi.apis.gcore.physics.collision.SpatialHashGrid;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a sleeping body wakes up and falls once the body it rests on is
+ * gone.
+ *
+ * @author Saif Khan<saifkhichi96@gmail.com>
+ */
+public class SleepTest {
+
+    private static final float STEP = 1.0f / 60.0f;
+
+    private PhysicsWorld world;
+    private RigidBody ground, box;
+
+    @Before
+    public void setUp() {
+        world = new PhysicsWorld();
+        world.setBroadphase(new SpatialHashGrid(4));
+
+        ground = new RigidBody(20, 2, 0.0f, 0.0f, 0.0f);
+        box = new RigidBody(2, 2, 0.0f, 3.0f, 1.0f);
+        box.setGravitational(true);
+        world.add(ground);
+        world.add(box);
+
+        for (int i = 0; i < 120 && !box.isSleeping(); i++) {
+            world.step(STEP);
+        }
+        assertTrue("Box resting on the ground should fall asleep", box.isSleeping());
+    }
+
+    @Test
+    public void removingSupportWakesBody() {
+        float restingY = box.getY();
+        world.remove(ground);
+        step(120);
+
+        assertFalse(box.isSleeping());
+        assertTrue("Box should fall, but is at " + box.getY(), box.getY() < restingY - 1.0f);
+    }
+
+    @Test
+    public void movingStaticSupportWakesBody() {
+        float restingY = box.getY();
+        ground.setY(-50.0f);
+        step(120);
+
+        assertFalse(box.isSleeping());
+        assertTrue("Box should fall, but is at " + box.getY(), box.getY() < restingY - 1.0f);
+    }
+
+    private void step(int steps) {
+        for (int i = 0; i < steps; i++) {
+            world.step(STEP);
+        }
+    }
+
+}